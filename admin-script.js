@@ -3,7 +3,8 @@ class AdminPanel {
         this.currentSection = 'categories';
         this.categories = JSON.parse(localStorage.getItem('customCategories')) || this.getDefaultCategories();
         this.users = JSON.parse(localStorage.getItem('users')) || this.getDefaultUsers();
-        this.settings = JSON.parse(localStorage.getItem('adminSettings')) || this.getDefaultSettings();
+        this.settings = this.getDefaultSettings();
+        this.settingsUrl = 'http://localhost:8080/settings/user/1';
         this.init();
     }
 
@@ -11,7 +12,7 @@ class AdminPanel {
         this.setupEventListeners();
         this.loadCategories();
         this.loadUsers();
-        this.loadSettings();
+        this.fetchSettings();
         this.loadAnalytics();
         this.setupNavigation();
     }
@@ -309,6 +310,30 @@ class AdminPanel {
         };
     }
 
+    // Settings live on the server; values come back as strings, so coerce them to the default's type
+    async fetchSettings() {
+        try {
+            const response = await fetch(this.settingsUrl);
+            if (!response.ok) throw new Error(`HTTP ${response.status}`);
+            const stored = await response.json();
+            const defaults = this.getDefaultSettings();
+            Object.keys(defaults).forEach(key => {
+                if (stored[key] === undefined) return;
+                if (typeof defaults[key] === 'boolean') {
+                    this.settings[key] = stored[key] === 'true';
+                } else if (typeof defaults[key] === 'number') {
+                    this.settings[key] = Number(stored[key]);
+                } else {
+                    this.settings[key] = stored[key];
+                }
+            });
+        } catch (error) {
+            console.error('Failed to load settings, using local copy:', error);
+            this.settings = JSON.parse(localStorage.getItem('adminSettings')) || this.getDefaultSettings();
+        }
+        this.loadSettings();
+    }
+
     loadSettings() {
         Object.keys(this.settings).forEach(key => {
             const element = document.getElementById(key);
@@ -334,8 +359,21 @@ class AdminPanel {
             }
         });
 
-        localStorage.setItem('adminSettings', JSON.stringify(this.settings));
-        alert('Pengaturan berhasil disimpan!');
+        fetch(this.settingsUrl, {
+            method: 'PUT',
+            headers: { 'Content-Type': 'application/json' },
+            body: JSON.stringify(this.settings)
+        })
+            .then(response => {
+                if (!response.ok) throw new Error(`HTTP ${response.status}`);
+                alert('Pengaturan berhasil disimpan!');
+            })
+            .catch(error => {
+                // Offline: keep a local copy so nothing is lost
+                console.error('Failed to save settings:', error);
+                localStorage.setItem('adminSettings', JSON.stringify(this.settings));
+                alert('Server tidak dapat dihubungi, pengaturan disimpan di browser.');
+            });
     }
 
     // Analytics
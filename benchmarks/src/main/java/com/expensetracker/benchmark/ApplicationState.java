@@ -0,0 +1,56 @@
+package com.expensetracker.benchmark;
+
+import com.expensetracker.ExpenseTrackerApplication;
+import com.expensetracker.service.CategoryService;
+import com.expensetracker.service.JwtService;
+import com.expensetracker.service.TransactionService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+
+/**
+ * Context Spring backend yang berjalan tanpa web server di atas salinan database benchmark.
+ * Ukuran database dipilih lewat parameter rows, misalnya -p rows=10000,1000000,10000000.
+ */
+@State(Scope.Benchmark)
+public class ApplicationState {
+
+    @Param({ "10000" })
+    public int rows;
+
+    ConfigurableApplicationContext context;
+    TransactionService transactionService;
+    CategoryService categoryService;
+    JwtService jwtService;
+
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        Path database = BenchmarkDatabase.prepare(rows);
+        // Argumen command line mengalahkan application.properties (show-sql dsb.)
+        context = new SpringApplicationBuilder(ExpenseTrackerApplication.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .run("--spring.datasource.url=jdbc:sqlite:" + database,
+                     "--spring.jpa.show-sql=false",
+                     "--spring.jpa.properties.hibernate.format_sql=false",
+                     "--logging.level.root=WARN");
+        transactionService = context.getBean(TransactionService.class);
+        categoryService = context.getBean(CategoryService.class);
+        jwtService = context.getBean(JwtService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+}
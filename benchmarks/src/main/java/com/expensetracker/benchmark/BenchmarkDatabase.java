@@ -0,0 +1,62 @@
+package com.expensetracker.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+/**
+ * Database SQLite sintetis untuk benchmark, dibuat dengan DataGenerator.
+ * Template per jumlah baris dibuat sekali di bench.db.dir (default target/bench-db) dari
+ * database-schema.sql, lalu disalin untuk setiap trial karena benchmark tulis mengubah isinya.
+ */
+final class BenchmarkDatabase {
+
+    static final int USERS = 100;
+    static final int YEARS = 3;
+    static final LocalDate LAST_DATE = LocalDate.of(2024, 12, 31);
+    static final Object[][] CATEGORIES = DataGenerator.DEFAULT_CATEGORIES;
+
+    private BenchmarkDatabase() {}
+
+    static Path prepare(int rows) throws IOException, SQLException {
+        Path dir = Paths.get(System.getProperty("bench.db.dir", "target/bench-db"));
+        Files.createDirectories(dir);
+
+        Path template = dir.resolve("expense-" + rows + ".db");
+        if (!Files.exists(template)) {
+            Path tmp = dir.resolve("expense-" + rows + ".db.tmp");
+            Files.deleteIfExists(tmp);
+            new DataGenerator(tmp, Paths.get(System.getProperty("bench.schema", "../database-schema.sql")))
+                    .users(USERS)
+                    .transactions(rows)
+                    .years(YEARS)
+                    .endDate(LAST_DATE)
+                    .customCategoryRatio(0)
+                    .generate();
+            Files.move(tmp, template, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        Path work = dir.resolve("expense-" + rows + "-run.db");
+        Files.deleteIfExists(Paths.get(work + "-wal"));
+        Files.deleteIfExists(Paths.get(work + "-shm"));
+        Files.copy(template, work, StandardCopyOption.REPLACE_EXISTING);
+        return work.toAbsolutePath();
+    }
+
+    static int randomCategory(SplittableRandom random) {
+        return random.nextInt(CATEGORIES.length);
+    }
+
+    static String categoryType(int category) {
+        return (String) CATEGORIES[category][1];
+    }
+
+    static LocalDate randomDate(SplittableRandom random) {
+        return LAST_DATE.minusDays(random.nextInt(YEARS * 365));
+    }
+}
@@ -0,0 +1,29 @@
+package com.expensetracker.benchmark;
+
+import com.expensetracker.dto.CategoryView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * getAllCategories lewat proxy Spring, termasuk lookup cache Caffeine.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CategoryServiceBenchmark {
+
+    @Benchmark
+    public List<CategoryView> getAllCategories(ApplicationState app) {
+        return app.categoryService.getAllCategories();
+    }
+}
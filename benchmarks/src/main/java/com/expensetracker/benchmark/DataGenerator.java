@@ -0,0 +1,371 @@
+package com.expensetracker.benchmark;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Mengisi database kosong (schema dari database-schema.sql) dengan data sintetis yang realistis:
+ * banyak user, jumlah transaksi per user mengikuti distribusi Zipf (sedikit user sangat aktif,
+ * kebanyakan jarang), tanggal tersebar beberapa tahun, dan kategori default plus kategori milik user.
+ * Semua insert memakai JDBC batch dan di-commit per BATCH_SIZE baris.
+ *
+ * Jalankan dari folder benchmarks/ setelah mvn package:
+ *   java -cp target/benchmarks.jar com.expensetracker.benchmark.DataGenerator \
+ *       --db=/tmp/big.db --users=10000 --transactions=1000000 --years=3 --zipf=1.1 --seed=42
+ *
+ * Dengan seed, jumlah baris dan end-date yang sama, isi database selalu sama (kecuali salt hash password).
+ */
+public final class DataGenerator {
+
+    // {nama, type, warna, ikon, nominal tipikal}; sama dengan data.sql, id = urutan + 1
+    static final Object[][] DEFAULT_CATEGORIES = {
+        { "Gaji", "INCOME", "#4CAF50", "💰", 8_000_000 },
+        { "Freelance", "INCOME", "#2196F3", "💼", 2_500_000 },
+        { "Investasi", "INCOME", "#FF9800", "📈", 1_000_000 },
+        { "Makanan", "EXPENSE", "#f44336", "🍔", 45_000 },
+        { "Transport", "EXPENSE", "#9C27B0", "🚗", 30_000 },
+        { "Hiburan", "EXPENSE", "#E91E63", "🎬", 120_000 },
+        { "Belanja", "EXPENSE", "#FF5722", "🛒", 250_000 },
+        { "Tagihan", "EXPENSE", "#795548", "📋", 600_000 },
+        { "Lainnya", "EXPENSE", "#607D8B", "📦", 80_000 }
+    };
+
+    private static final String[] FIRST_NAMES = {
+        "Andi", "Budi", "Citra", "Dewi", "Eko", "Fajar", "Gita", "Hadi", "Indah", "Joko",
+        "Kartika", "Lestari", "Made", "Nina", "Oka", "Putri", "Rizky", "Sari", "Tono", "Wulan"
+    };
+    private static final String[] LAST_NAMES = {
+        "Santoso", "Wijaya", "Pratama", "Saputra", "Hidayat", "Nugroho", "Kusuma", "Siregar",
+        "Harahap", "Lubis", "Setiawan", "Gunawan", "Halim", "Tanjung", "Wibowo"
+    };
+    private static final String[] CUSTOM_CATEGORIES = {
+        "Kopi", "Pulsa", "Parkir", "Donasi", "Hewan Peliharaan", "Olahraga", "Kesehatan", "Pendidikan"
+    };
+    private static final Map<String, String[]> DESCRIPTIONS = Map.of(
+        "Gaji", new String[] { "Gaji bulanan", "Gaji + tunjangan" },
+        "Freelance", new String[] { "Project website", "Desain logo", "Konsultasi" },
+        "Investasi", new String[] { "Dividen saham", "Bunga deposito", "Reksa dana" },
+        "Makanan", new String[] { "Makan siang", "Makan malam", "Sarapan", "Jajan" },
+        "Transport", new String[] { "Bensin motor", "Ojek online", "Tiket KRL", "Tol" },
+        "Hiburan", new String[] { "Nonton bioskop", "Langganan streaming", "Konser" },
+        "Belanja", new String[] { "Belanja bulanan", "Pakaian", "Elektronik" },
+        "Tagihan", new String[] { "Listrik", "Internet", "Air PDAM", "Cicilan" },
+        "Lainnya", new String[] { "Lain-lain" }
+    );
+
+    // Semua user hasil generate memakai password ini (satu hash BCrypt untuk semua baris)
+    private static final String PASSWORD = "password123";
+
+    private static final int BATCH_SIZE = 10_000;
+
+    private final Path database;
+    private final Path schema;
+    private int users = 10_000;
+    private long transactions = 1_000_000;
+    private int years = 3;
+    private LocalDate endDate = LocalDate.of(2025, 12, 31);
+    private double zipfExponent = 1.1;
+    private double customCategoryRatio = 0.1;
+    private long seed = 42;
+
+    public DataGenerator(Path database, Path schema) {
+        this.database = database;
+        this.schema = schema;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseArgs(args);
+        if (!options.containsKey("db")) {
+            System.err.println("Usage: DataGenerator --db=<file> [--schema=../database-schema.sql] [--users=10000] " +
+                               "[--transactions=1000000] [--years=3] [--end-date=2025-12-31] [--zipf=1.1] " +
+                               "[--custom-category-ratio=0.1] [--seed=42]");
+            System.exit(1);
+        }
+        Path database = Paths.get(options.get("db"));
+        if (Files.exists(database)) {
+            System.err.println("Refusing to overwrite existing database " + database);
+            System.exit(1);
+        }
+        new DataGenerator(database, Paths.get(options.getOrDefault("schema", "../database-schema.sql")))
+                .users(Integer.parseInt(options.getOrDefault("users", "10000")))
+                .transactions(Long.parseLong(options.getOrDefault("transactions", "1000000")))
+                .years(Integer.parseInt(options.getOrDefault("years", "3")))
+                .endDate(LocalDate.parse(options.getOrDefault("end-date", "2025-12-31")))
+                .zipfExponent(Double.parseDouble(options.getOrDefault("zipf", "1.1")))
+                .customCategoryRatio(Double.parseDouble(options.getOrDefault("custom-category-ratio", "0.1")))
+                .seed(Long.parseLong(options.getOrDefault("seed", "42")))
+                .generate();
+    }
+
+    public DataGenerator users(int users) {
+        this.users = users;
+        return this;
+    }
+
+    public DataGenerator transactions(long transactions) {
+        this.transactions = transactions;
+        return this;
+    }
+
+    public DataGenerator years(int years) {
+        this.years = years;
+        return this;
+    }
+
+    public DataGenerator endDate(LocalDate endDate) {
+        this.endDate = endDate;
+        return this;
+    }
+
+    public DataGenerator zipfExponent(double zipfExponent) {
+        this.zipfExponent = zipfExponent;
+        return this;
+    }
+
+    public DataGenerator customCategoryRatio(double customCategoryRatio) {
+        this.customCategoryRatio = customCategoryRatio;
+        return this;
+    }
+
+    public DataGenerator seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public void generate() throws IOException, SQLException {
+        System.out.printf("Generating %s: users=%d transactions=%d years=%d end-date=%s zipf=%.2f seed=%d%n",
+                database, users, transactions, years, endDate, zipfExponent, seed);
+        long started = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(seed);
+        int days = (int) (endDate.toEpochDay() - endDate.minusYears(years).toEpochDay());
+
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + database)) {
+            try (Statement st = conn.createStatement()) {
+                // Hanya untuk pembuatan file: tidak perlu durable
+                st.execute("PRAGMA journal_mode = OFF");
+                st.execute("PRAGMA synchronous = OFF");
+                for (String sql : statements(Files.readString(schema))) {
+                    st.execute(sql);
+                }
+            }
+            conn.setAutoCommit(false);
+
+            insertUsers(conn, random);
+            int[][] customCategories = insertCategories(conn, random);
+            insertTransactions(conn, random, customCategories, days);
+
+            try (Statement st = conn.createStatement()) {
+                // Rollup bulanan diisi di sini agar SchemaUpgrade tidak perlu backfill saat startup
+                st.execute("INSERT INTO transaction_monthly_rollup (user_id, category_id, type, month, total, txn_count) " +
+                           "SELECT user_id, category_id, type, strftime('%Y-%m', transaction_date + 2440587.5) AS month, " +
+                           "SUM(amount), COUNT(*) FROM transactions GROUP BY user_id, category_id, type, month");
+            }
+            conn.commit();
+
+            conn.setAutoCommit(true);
+            try (Statement st = conn.createStatement()) {
+                st.execute("ANALYZE");
+                st.execute("PRAGMA journal_mode = WAL");
+            }
+        }
+        System.out.printf("Done in %.1f s%n", (System.nanoTime() - started) / 1e9);
+    }
+
+    private void insertUsers(Connection conn, SplittableRandom random) throws SQLException {
+        String passwordHash = new BCryptPasswordEncoder().encode(PASSWORD);
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO users (name, email, password_hash, role, status) VALUES (?, ?, ?, ?, ?)")) {
+            for (int i = 1; i <= users; i++) {
+                String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+                String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+                ps.setString(1, first + " " + last);
+                ps.setString(2, first.toLowerCase() + "." + last.toLowerCase() + i + "@example.com");
+                ps.setString(3, passwordHash);
+                ps.setString(4, i == 1 ? "ADMIN" : "USER");
+                ps.setString(5, random.nextInt(100) < 95 ? "ACTIVE" : "INACTIVE");
+                ps.addBatch();
+                if (i % BATCH_SIZE == 0) {
+                    ps.executeBatch();
+                }
+            }
+            ps.executeBatch();
+        }
+        conn.commit();
+    }
+
+    // Kategori default global (id 1..9), lalu sebagian user mendapat 1-3 kategori EXPENSE sendiri
+    private int[][] insertCategories(Connection conn, SplittableRandom random) throws SQLException {
+        int[][] customCategories = new int[users + 1][];
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO categories (name, type, color, icon, is_default, user_id) VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (Object[] category : DEFAULT_CATEGORIES) {
+                ps.setString(1, (String) category[0]);
+                ps.setString(2, (String) category[1]);
+                ps.setString(3, (String) category[2]);
+                ps.setString(4, (String) category[3]);
+                ps.setInt(5, 1);
+                ps.setObject(6, null);
+                ps.addBatch();
+            }
+
+            int nextId = DEFAULT_CATEGORIES.length + 1;
+            int pending = 0;
+            for (int user = 1; user <= users; user++) {
+                if (random.nextDouble() >= customCategoryRatio) {
+                    continue;
+                }
+                int count = 1 + random.nextInt(3);
+                customCategories[user] = new int[count];
+                for (int k = 0; k < count; k++) {
+                    ps.setString(1, CUSTOM_CATEGORIES[random.nextInt(CUSTOM_CATEGORIES.length)]);
+                    ps.setString(2, "EXPENSE");
+                    ps.setString(3, "#667eea");
+                    ps.setString(4, "💰");
+                    ps.setInt(5, 0);
+                    ps.setInt(6, user);
+                    ps.addBatch();
+                    customCategories[user][k] = nextId++;
+                    if (++pending % BATCH_SIZE == 0) {
+                        ps.executeBatch();
+                    }
+                }
+            }
+            ps.executeBatch();
+        }
+        conn.commit();
+        return customCategories;
+    }
+
+    private void insertTransactions(Connection conn, SplittableRandom random, int[][] customCategories, int days)
+            throws SQLException {
+        ZipfSampler userRank = new ZipfSampler(users, zipfExponent);
+        // Rank Zipf dipetakan ke id user secara acak, supaya user paling aktif bukan selalu id 1
+        int[] userByRank = new int[users];
+        for (int i = 0; i < users; i++) {
+            userByRank[i] = i + 1;
+        }
+        for (int i = users - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = userByRank[i];
+            userByRank[i] = userByRank[j];
+            userByRank[j] = tmp;
+        }
+
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO transactions (user_id, type, amount, category_id, description, transaction_date) " +
+                "VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (long i = 1; i <= transactions; i++) {
+                int userId = userByRank[userRank.sample(random)];
+                // ~15% pemasukan, sisanya pengeluaran
+                int category = random.nextInt(100) < 15 ? random.nextInt(3) : 3 + random.nextInt(DEFAULT_CATEGORIES.length - 3);
+                Object[] defaults = DEFAULT_CATEGORIES[category];
+                int categoryId = category + 1;
+                int[] own = customCategories[userId];
+                if (own != null && "EXPENSE".equals(defaults[1]) && random.nextInt(100) < 20) {
+                    categoryId = own[random.nextInt(own.length)];
+                }
+                String[] descriptions = DESCRIPTIONS.get((String) defaults[0]);
+
+                ps.setInt(1, userId);
+                ps.setString(2, (String) defaults[1]);
+                ps.setLong(3, amount(random, (Integer) defaults[4]));
+                ps.setInt(4, categoryId);
+                ps.setString(5, descriptions[random.nextInt(descriptions.length)]);
+                ps.setLong(6, endDate.minusDays(random.nextInt(days)).toEpochDay());
+                ps.addBatch();
+                if (i % BATCH_SIZE == 0) {
+                    ps.executeBatch();
+                    conn.commit();
+                }
+                if (i % 1_000_000 == 0) {
+                    System.out.println("  " + i + " transactions");
+                }
+            }
+            ps.executeBatch();
+        }
+        conn.commit();
+    }
+
+    // Log-normal di sekitar nominal tipikal kategori, dibulatkan ke Rp500; hasil dalam satuan terkecil (x100)
+    private static long amount(SplittableRandom random, int typical) {
+        double gaussian = Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+        return Math.max(500, Math.round(typical * Math.exp(0.6 * gaussian) / 500) * 500) * 100;
+    }
+
+    // Dipisah per ';', kecuali di dalam body CREATE TRIGGER ... BEGIN ... END
+    private static List<String> statements(String script) {
+        StringBuilder withoutComments = new StringBuilder();
+        for (String line : script.split("\n")) {
+            if (!line.trim().startsWith("--")) {
+                withoutComments.append(line).append('\n');
+            }
+        }
+        List<String> statements = new ArrayList<>();
+        StringBuilder pending = new StringBuilder();
+        for (String part : withoutComments.toString().split(";")) {
+            pending.append(part);
+            String sql = pending.toString().trim();
+            if (sql.toUpperCase().startsWith("CREATE TRIGGER") && !sql.toUpperCase().endsWith("END")) {
+                pending.append(';');
+                continue;
+            }
+            if (!sql.isEmpty()) {
+                statements.add(sql);
+            }
+            pending.setLength(0);
+        }
+        return statements;
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                int eq = arg.indexOf('=');
+                options.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        return options;
+    }
+
+    /**
+     * Sampling rank 0..n-1 dengan P(rank k) sebanding 1/(k+1)^s, lewat CDF kumulatif + binary search.
+     */
+    static final class ZipfSampler {
+
+        private final double[] cdf;
+
+        ZipfSampler(int n, double exponent) {
+            cdf = new double[n];
+            double sum = 0;
+            for (int k = 0; k < n; k++) {
+                sum += 1.0 / Math.pow(k + 1, exponent);
+                cdf[k] = sum;
+            }
+            for (int k = 0; k < n; k++) {
+                cdf[k] /= sum;
+            }
+        }
+
+        int sample(SplittableRandom random) {
+            int index = Arrays.binarySearch(cdf, random.nextDouble());
+            return Math.min(cdf.length - 1, index >= 0 ? index : -index - 1);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.expensetracker.benchmark;
+
+import com.expensetracker.entity.Transaction;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialisasi List<Transaction> seperti response controller, tanpa database.
+ * ObjectMapper dibuat dengan builder yang sama dengan yang dipakai Spring MVC.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JacksonBenchmark {
+
+    @Param({ "50", "500", "5000" })
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<Transaction> transactions;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        SplittableRandom random = new SplittableRandom(42);
+        transactions = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            int category = BenchmarkDatabase.randomCategory(random);
+            Transaction transaction = new Transaction();
+            transaction.setId(i);
+            transaction.setUserId(1 + random.nextInt(BenchmarkDatabase.USERS));
+            transaction.setCategoryId(category + 1);
+            transaction.setType(BenchmarkDatabase.categoryType(category));
+            transaction.setAmount(10_000L * random.nextInt(100, 5_000));
+            transaction.setDescription("Transaksi benchmark " + i);
+            transaction.setTransactionDate(BenchmarkDatabase.randomDate(random));
+            transaction.setCreatedAt(LocalDateTime.of(2024, 12, 31, 10, 0));
+            transaction.setUpdatedAt(LocalDateTime.of(2024, 12, 31, 10, 0));
+            transactions.add(transaction);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeTransactions() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(transactions);
+    }
+}
@@ -0,0 +1,50 @@
+package com.expensetracker.benchmark;
+
+import com.expensetracker.entity.User;
+import com.expensetracker.service.JwtService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Biaya verifikasi JWT per request: authenticate dengan token yang sudah ada di cache
+ * (jalur normal JwtAuthenticationFilter) dibandingkan verifikasi HMAC + parsing claims penuh.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+
+    private String token;
+
+    @Setup(Level.Trial)
+    public void issueToken(ApplicationState app) {
+        User user = new User("Bench", "bench@example.com", null);
+        user.setId(1);
+        user.setRole("USER");
+        token = app.jwtService.issue(user);
+    }
+
+    @Benchmark
+    public JwtService.VerifiedToken authenticateCached(ApplicationState app) {
+        return app.jwtService.authenticate(token);
+    }
+
+    @Benchmark
+    public JwtService.VerifiedToken verifyUncached(ApplicationState app) {
+        return app.jwtService.verify(token);
+    }
+}
@@ -0,0 +1,13 @@
+package com.expensetracker.benchmark;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+
+// Random per thread benchmark, tanpa contention
+@State(Scope.Thread)
+public class ThreadRandom {
+
+    final SplittableRandom random = new SplittableRandom();
+}
@@ -0,0 +1,48 @@
+package com.expensetracker.benchmark;
+
+import com.expensetracker.dto.TransactionView;
+import com.expensetracker.entity.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput dan persentil latensi (SampleTime) untuk jalur tulis dan baca TransactionService.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TransactionServiceBenchmark {
+
+    @Benchmark
+    public Transaction createTransaction(ApplicationState app, ThreadRandom thread) {
+        int category = BenchmarkDatabase.randomCategory(thread.random);
+        Transaction transaction = new Transaction();
+        transaction.setUserId(1 + thread.random.nextInt(BenchmarkDatabase.USERS));
+        transaction.setCategoryId(category + 1);
+        transaction.setType(BenchmarkDatabase.categoryType(category));
+        transaction.setAmount(10_000L * thread.random.nextInt(100, 5_000));
+        transaction.setDescription("Benchmark insert");
+        transaction.setTransactionDate(BenchmarkDatabase.randomDate(thread.random));
+        return app.transactionService.createTransaction(transaction);
+    }
+
+    // Satu bulan acak untuk satu user acak
+    @Benchmark
+    public List<TransactionView> getTransactionsByUserAndDateRange(ApplicationState app, ThreadRandom thread) {
+        YearMonth month = YearMonth.from(BenchmarkDatabase.LAST_DATE).minusMonths(thread.random.nextInt(BenchmarkDatabase.YEARS * 12));
+        return app.transactionService.getTransactionsByUserAndDateRange(
+                1 + thread.random.nextInt(BenchmarkDatabase.USERS),
+                month.atDay(1), month.atEndOfMonth());
+    }
+}
@@ -37,10 +37,10 @@ CREATE TABLE IF NOT EXISTS transactions (
     id INTEGER PRIMARY KEY AUTOINCREMENT,
     user_id INTEGER NOT NULL,
     type TEXT NOT NULL,
-    amount REAL NOT NULL,
+    amount INTEGER NOT NULL,            -- satuan terkecil (1/100 Rupiah)
     category_id INTEGER NOT NULL,
     description TEXT,
-    transaction_date TEXT NOT NULL,
+    transaction_date INTEGER NOT NULL,  -- epoch day (hari sejak 1970-01-01)
     created_at TEXT DEFAULT CURRENT_TIMESTAMP,
     updated_at TEXT DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
@@ -52,10 +52,10 @@ CREATE TABLE IF NOT EXISTS budgets (
     id INTEGER PRIMARY KEY AUTOINCREMENT,
     user_id INTEGER NOT NULL,
     category_id INTEGER NOT NULL,
-    amount REAL NOT NULL,
+    amount INTEGER NOT NULL,            -- satuan terkecil (1/100 Rupiah)
     period TEXT DEFAULT 'MONTHLY',
-    start_date TEXT NOT NULL,
-    end_date TEXT,
+    start_date INTEGER NOT NULL,        -- epoch day
+    end_date INTEGER,                   -- epoch day
     is_active INTEGER DEFAULT 1,
     created_at TEXT DEFAULT CURRENT_TIMESTAMP,
     updated_at TEXT DEFAULT CURRENT_TIMESTAMP,
@@ -75,16 +75,97 @@ CREATE TABLE IF NOT EXISTS settings (
     UNIQUE(user_id, setting_key)
 );
 
+-- Create monthly rollup table (maintained by TransactionService, month = YYYY-MM)
+CREATE TABLE IF NOT EXISTS transaction_monthly_rollup (
+    user_id INTEGER NOT NULL,
+    category_id INTEGER NOT NULL,
+    type TEXT NOT NULL,
+    month TEXT NOT NULL,
+    total INTEGER NOT NULL DEFAULT 0,
+    txn_count INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, category_id, type, month),
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (category_id) REFERENCES categories(id) ON DELETE CASCADE
+);
+
+-- JWT yang dicabut sebelum expired (TokenRevocationService); expires_at dalam epoch detik.
+-- Tanpa foreign key: pencabutan harus tetap ada setelah user-nya dihapus.
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    jti TEXT PRIMARY KEY,
+    expires_at INTEGER NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS revoked_user_tokens (
+    user_id INTEGER PRIMARY KEY,
+    revoked_before INTEGER NOT NULL     -- epoch milidetik
+);
+
+-- Full-text search atas transactions.description (external content: teks tidak disimpan dua kali).
+-- user_id ikut diindeks sebagai kolom sendiri supaya pencarian per user dipersempit di dalam index FTS.
+CREATE VIRTUAL TABLE IF NOT EXISTS transactions_fts USING fts5(
+    description,
+    user_id,
+    content='transactions',
+    content_rowid='id',
+    tokenize='unicode61 remove_diacritics 2',
+    prefix='2 3'
+);
+
+-- Trigger menjaga transactions_fts tetap sinkron dengan transactions
+CREATE TRIGGER IF NOT EXISTS transactions_fts_insert AFTER INSERT ON transactions BEGIN
+    INSERT INTO transactions_fts (rowid, description, user_id) VALUES (new.id, new.description, new.user_id);
+END;
+
+CREATE TRIGGER IF NOT EXISTS transactions_fts_delete AFTER DELETE ON transactions BEGIN
+    INSERT INTO transactions_fts (transactions_fts, rowid, description, user_id) VALUES ('delete', old.id, old.description, old.user_id);
+END;
+
+CREATE TRIGGER IF NOT EXISTS transactions_fts_update AFTER UPDATE OF description, user_id ON transactions
+WHEN old.description IS NOT new.description OR old.user_id IS NOT new.user_id BEGIN
+    INSERT INTO transactions_fts (transactions_fts, rowid, description, user_id) VALUES ('delete', old.id, old.description, old.user_id);
+    INSERT INTO transactions_fts (rowid, description, user_id) VALUES (new.id, new.description, new.user_id);
+END;
+
+-- Pencarian user (admin) atas name/email: trigram mencocokkan substring >= 3 karakter tanpa scan tabel
+CREATE VIRTUAL TABLE IF NOT EXISTS users_fts USING fts5(
+    name,
+    email,
+    content='users',
+    content_rowid='id',
+    tokenize='trigram'
+);
+
+CREATE TRIGGER IF NOT EXISTS users_fts_insert AFTER INSERT ON users BEGIN
+    INSERT INTO users_fts (rowid, name, email) VALUES (new.id, new.name, new.email);
+END;
+
+CREATE TRIGGER IF NOT EXISTS users_fts_delete AFTER DELETE ON users BEGIN
+    INSERT INTO users_fts (users_fts, rowid, name, email) VALUES ('delete', old.id, old.name, old.email);
+END;
+
+CREATE TRIGGER IF NOT EXISTS users_fts_update AFTER UPDATE OF name, email ON users
+WHEN old.name IS NOT new.name OR old.email IS NOT new.email BEGIN
+    INSERT INTO users_fts (users_fts, rowid, name, email) VALUES ('delete', old.id, old.name, old.email);
+    INSERT INTO users_fts (rowid, name, email) VALUES (new.id, new.name, new.email);
+END;
+
 -- Create indexes for performance
 CREATE INDEX IF NOT EXISTS idx_users_email ON users(email);
 CREATE INDEX IF NOT EXISTS idx_users_role ON users(role);
 CREATE INDEX IF NOT EXISTS idx_users_status ON users(status);
+-- Pencarian prefix 1-2 karakter (LIKE 'ab%' case-insensitive) memakai index NOCASE
+CREATE INDEX IF NOT EXISTS idx_users_name_nocase ON users(name COLLATE NOCASE);
+CREATE INDEX IF NOT EXISTS idx_users_email_nocase ON users(email COLLATE NOCASE);
 CREATE INDEX IF NOT EXISTS idx_categories_user_type ON categories(user_id, type);
 CREATE INDEX IF NOT EXISTS idx_categories_name ON categories(name);
 CREATE INDEX IF NOT EXISTS idx_transactions_user_date ON transactions(user_id, transaction_date);
+CREATE INDEX IF NOT EXISTS idx_transactions_date ON transactions(transaction_date);
 CREATE INDEX IF NOT EXISTS idx_transactions_category ON transactions(category_id);
 CREATE INDEX IF NOT EXISTS idx_transactions_type ON transactions(type);
 CREATE INDEX IF NOT EXISTS idx_budgets_user_category ON budgets(user_id, category_id);
+-- Setiap kolom anak foreign key perlu index, supaya ON DELETE CASCADE tidak men-scan tabel anak
+CREATE INDEX IF NOT EXISTS idx_budgets_category ON budgets(category_id);
+CREATE INDEX IF NOT EXISTS idx_rollup_category ON transaction_monthly_rollup(category_id);
 CREATE INDEX IF NOT EXISTS idx_settings_user_key ON settings(user_id, setting_key);
 
 -- Verify foreign keys are enabled
@@ -0,0 +1,172 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Stress test POST /transactions dengan banyak client bersamaan (jalankan dengan: java InsertStressTest.java ...).
+ * Setiap transaksi punya description unik, lalu diperiksa:
+ * - id di setiap response unik (tidak ada dua insert yang menerima id yang sama)
+ * - response terisi lengkap (id, createdAt, updatedAt) dan sama dengan yang dikirim
+ * - GET /transactions/{id} mengembalikan baris yang sama, jadi id benar-benar milik insert tersebut
+ * Exit code 1 jika ada pelanggaran.
+ * Backend harus dijalankan dengan --rate-limit.enabled=false --load-shedding.enabled=false;
+ * kalau tidak, sebagian insert dijawab 429/503 dan dihitung sebagai pelanggaran.
+ *
+ * Opsi:
+ *   --url=http://localhost:8080   base URL backend
+ *   --clients=64                  jumlah client bersamaan
+ *   --per-client=200              jumlah insert per client
+ *   --user-id=1                   userId untuk transaksi yang ditulis
+ *   --category-id=4               categoryId untuk transaksi yang ditulis
+ */
+public class InsertStressTest {
+
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+    private static final Pattern DESCRIPTION = Pattern.compile("\"description\":\"([^\"]*)\"");
+    private static final Pattern AMOUNT = Pattern.compile("\"amount\":([0-9.]+)");
+    private static final Pattern CREATED_AT = Pattern.compile("\"createdAt\":\"([^\"]+)\"");
+    private static final Pattern UPDATED_AT = Pattern.compile("\"updatedAt\":\"([^\"]+)\"");
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseArgs(args);
+        String baseUrl = options.getOrDefault("url", "http://localhost:8080");
+        int clients = Integer.parseInt(options.getOrDefault("clients", "64"));
+        int perClient = Integer.parseInt(options.getOrDefault("per-client", "200"));
+        String userId = options.getOrDefault("user-id", "1");
+        String categoryId = options.getOrDefault("category-id", "4");
+        String run = Long.toString(System.currentTimeMillis(), 36);
+
+        HttpClient http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        // id -> description yang dikirim; putIfAbsent mendeteksi id ganda
+        Map<Integer, String> idToDescription = new ConcurrentHashMap<>();
+        Map<String, Double> descriptionToAmount = new ConcurrentHashMap<>();
+        List<String> violations = Collections.synchronizedList(new ArrayList<>());
+        AtomicLong failedRequests = new AtomicLong();
+        AtomicReference<String> firstError = new AtomicReference<>();
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        long begin = System.nanoTime();
+        for (int c = 0; c < clients; c++) {
+            int client = c;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perClient; i++) {
+                    String description = "stress-" + run + "-" + client + "-" + i;
+                    double amount = 1000 + client * perClient + i;
+                    String body = "{\"type\":\"EXPENSE\",\"amount\":" + amount + ",\"categoryId\":" + categoryId +
+                            ",\"userId\":" + userId + ",\"description\":\"" + description +
+                            "\",\"transactionDate\":\"2025-01-15\"}";
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/transactions"))
+                            .timeout(Duration.ofSeconds(60))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(body))
+                            .build();
+                    try {
+                        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+                        if (response.statusCode() != 200) {
+                            failedRequests.incrementAndGet();
+                            firstError.compareAndSet(null, "HTTP " + response.statusCode() + ": " + response.body());
+                            continue;
+                        }
+                        String json = response.body();
+                        String id = find(ID, json);
+                        if (id == null) {
+                            violations.add("response tanpa id: " + json);
+                            continue;
+                        }
+                        if (!description.equals(find(DESCRIPTION, json))) {
+                            violations.add("id " + id + ": description response berbeda: " + json);
+                        }
+                        if (find(CREATED_AT, json) == null || find(UPDATED_AT, json) == null) {
+                            violations.add("id " + id + ": createdAt/updatedAt kosong: " + json);
+                        }
+                        String previous = idToDescription.putIfAbsent(Integer.valueOf(id), description);
+                        if (previous != null) {
+                            violations.add("id " + id + " dikembalikan ke dua insert: " + previous + " dan " + description);
+                        }
+                        descriptionToAmount.put(description, amount);
+                    } catch (Exception e) {
+                        failedRequests.incrementAndGet();
+                        firstError.compareAndSet(null, e.toString());
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+
+        // Baca ulang setiap baris: id harus menunjuk ke transaksi yang memang dibuat oleh insert tersebut
+        for (Map.Entry<Integer, String> entry : idToDescription.entrySet()) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/transactions/" + entry.getKey()))
+                    .timeout(Duration.ofSeconds(60))
+                    .GET()
+                    .build();
+            String json = http.send(request, HttpResponse.BodyHandlers.ofString()).body();
+            String description = find(DESCRIPTION, json);
+            if (!entry.getValue().equals(description)) {
+                violations.add("GET /transactions/" + entry.getKey() + " berisi " + description + ", seharusnya " + entry.getValue());
+                continue;
+            }
+            String amount = find(AMOUNT, json);
+            if (amount == null || Double.parseDouble(amount) != descriptionToAmount.get(description)) {
+                violations.add("GET /transactions/" + entry.getKey() + " amount " + amount + ", seharusnya " + descriptionToAmount.get(description));
+            }
+        }
+
+        int expected = clients * perClient;
+        System.out.printf("clients=%d inserts=%d ok=%d failed=%d time=%.1fs (%.0f insert/s)%n",
+                clients, expected, idToDescription.size(), failedRequests.get(), seconds, idToDescription.size() / seconds);
+        if (firstError.get() != null) {
+            System.out.println("first error: " + firstError.get());
+        }
+        if (violations.isEmpty() && failedRequests.get() == 0) {
+            System.out.println("OK: semua id unik dan setiap response cocok dengan baris di database");
+            return;
+        }
+        System.out.println("FAILED: " + violations.size() + " pelanggaran");
+        violations.stream().limit(20).forEach(v -> System.out.println("  " + v));
+        System.exit(1);
+    }
+
+    private static String find(Pattern pattern, String json) {
+        Matcher matcher = pattern.matcher(json);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                int eq = arg.indexOf('=');
+                options.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        return options;
+    }
+}
@@ -0,0 +1,303 @@
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Load test HTTP closed-loop sederhana (tanpa dependency, jalankan dengan: java LoadTest.java ...).
+ * Setiap client mengirim request berikutnya segera setelah response sebelumnya diterima.
+ * Semua client memakai satu IP; untuk mengukur kapasitas tulis, jalankan backend dengan
+ * --rate-limit.enabled=false --load-shedding.enabled=false.
+ *
+ * Opsi:
+ *   --url=http://localhost:8080   base URL backend
+ *   --clients=1000                jumlah client bersamaan
+ *   --duration=30                 durasi pengukuran (detik), setelah warmup
+ *   --warmup=5                    durasi warmup (detik), tidak dihitung
+ *   --path=/transactions/user/1/page?limit=20   endpoint GET yang dibaca
+ *   --write-ratio=0.0             porsi request POST /transactions (0.0 - 1.0)
+ *   --user-id=1                   userId untuk transaksi yang ditulis
+ *
+ * Workload campuran (menggantikan --path/--write-ratio):
+ *   --workload=loadtest/mixed-workload.txt   file skenario, lihat format di file contoh
+ *   --users=10000                 jumlah user untuk placeholder {user}
+ *   --zipf=1.1                    skew pemilihan user (0 = merata), sama seperti DataGenerator
+ *   --category-ids=4-9            rentang id kategori untuk {category}
+ *   --end-date=2025-12-31         {date} diambil acak dari 365 hari sebelum tanggal ini
+ *   --seed=42                     seed random; urutan request per client dapat diulang
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseArgs(args);
+        String baseUrl = options.getOrDefault("url", "http://localhost:8080");
+        int clients = Integer.parseInt(options.getOrDefault("clients", "1000"));
+        int durationSeconds = Integer.parseInt(options.getOrDefault("duration", "30"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "5"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+
+        List<Operation> operations = options.containsKey("workload")
+                ? Operation.parseWorkload(options.get("workload"))
+                : Operation.singleEndpoint(options);
+        Placeholders placeholders = new Placeholders(options);
+        double totalWeight = operations.stream().mapToDouble(op -> op.weight).sum();
+
+        HttpClient http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        long start = System.nanoTime();
+        long measureFrom = start + Duration.ofSeconds(warmupSeconds).toNanos();
+        long deadline = measureFrom + Duration.ofSeconds(durationSeconds).toNanos();
+
+        AtomicLong[] errors = new AtomicLong[operations.size()];
+        for (int i = 0; i < errors.length; i++) {
+            errors[i] = new AtomicLong();
+        }
+        AtomicReference<String> firstError = new AtomicReference<>();
+        List<long[][]> perClientLatencies = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            SplittableRandom random = new SplittableRandom(seed + i);
+            Thread thread = new Thread(() -> {
+                long[][] latencies = new long[operations.size()][64];
+                int[] counts = new int[operations.size()];
+                while (true) {
+                    long sent = System.nanoTime();
+                    if (sent >= deadline) {
+                        break;
+                    }
+                    int op = pick(operations, totalWeight, random);
+                    HttpRequest request = operations.get(op).build(baseUrl, placeholders, random);
+                    boolean ok;
+                    try {
+                        HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                        ok = response.statusCode() < 400;
+                        if (!ok) {
+                            firstError.compareAndSet(null, "HTTP " + response.statusCode() + " " + request.uri());
+                        }
+                    } catch (Exception e) {
+                        ok = false;
+                        firstError.compareAndSet(null, e.toString());
+                    }
+                    long received = System.nanoTime();
+                    if (sent < measureFrom) {
+                        continue;
+                    }
+                    if (!ok) {
+                        errors[op].incrementAndGet();
+                        continue;
+                    }
+                    if (counts[op] == latencies[op].length) {
+                        latencies[op] = Arrays.copyOf(latencies[op], counts[op] * 2);
+                    }
+                    latencies[op][counts[op]++] = received - sent;
+                }
+                long[][] measured = new long[operations.size()][];
+                for (int op = 0; op < measured.length; op++) {
+                    measured[op] = Arrays.copyOf(latencies[op], counts[op]);
+                }
+                synchronized (perClientLatencies) {
+                    perClientLatencies.add(measured);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        long totalErrors = Arrays.stream(errors).mapToLong(AtomicLong::get).sum();
+        long[] all = perClientLatencies.stream().flatMap(Arrays::stream).flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf("clients=%d duration=%ds requests=%d errors=%d%n", clients, durationSeconds, all.length, totalErrors);
+        if (firstError.get() != null) {
+            System.out.println("first error: " + firstError.get());
+        }
+        System.out.printf("throughput=%.1f req/s%n", all.length / (double) durationSeconds);
+        if (all.length > 0) {
+            System.out.printf("p50=%.2f ms  p90=%.2f ms  p99=%.2f ms  max=%.2f ms%n",
+                    percentile(all, 0.50), percentile(all, 0.90), percentile(all, 0.99), all[all.length - 1] / 1e6);
+        }
+
+        if (operations.size() > 1) {
+            System.out.println();
+            System.out.printf("%-60s %9s %7s %10s %10s %10s%n", "operation", "req/s", "errors", "p50 ms", "p99 ms", "max ms");
+            for (int op = 0; op < operations.size(); op++) {
+                int index = op;
+                long[] sorted = perClientLatencies.stream().flatMapToLong(c -> Arrays.stream(c[index])).sorted().toArray();
+                System.out.printf("%-60s %9.1f %7d %10.2f %10.2f %10.2f%n", operations.get(op).name,
+                        sorted.length / (double) durationSeconds, errors[op].get(),
+                        percentile(sorted, 0.50), percentile(sorted, 0.99),
+                        sorted.length > 0 ? sorted[sorted.length - 1] / 1e6 : 0.0);
+            }
+        }
+    }
+
+    private static int pick(List<Operation> operations, double totalWeight, SplittableRandom random) {
+        double r = random.nextDouble() * totalWeight;
+        for (int i = 0; i < operations.size(); i++) {
+            r -= operations.get(i).weight;
+            if (r < 0) {
+                return i;
+            }
+        }
+        return operations.size() - 1;
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                int eq = arg.indexOf('=');
+                options.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        return options;
+    }
+
+    // Satu baris workload: bobot, method, path dan body (boleh memuat placeholder)
+    private static class Operation {
+        private final double weight;
+        private final String method;
+        private final String path;
+        private final String body;
+        private final String name;
+
+        private Operation(double weight, String method, String path, String body) {
+            this.weight = weight;
+            this.method = method;
+            this.path = path;
+            this.body = body;
+            this.name = method + " " + path;
+        }
+
+        private static List<Operation> parseWorkload(String file) throws IOException {
+            List<Operation> operations = new ArrayList<>();
+            for (String line : Files.readAllLines(Paths.get(file))) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = line.split("\\s+", 4);
+                if (parts.length < 3) {
+                    throw new IllegalArgumentException("Invalid workload line: " + line);
+                }
+                operations.add(new Operation(Double.parseDouble(parts[0]), parts[1].toUpperCase(), parts[2],
+                                             parts.length > 3 ? parts[3] : null));
+            }
+            if (operations.isEmpty()) {
+                throw new IllegalArgumentException("Workload " + file + " has no operations");
+            }
+            return operations;
+        }
+
+        // Mode lama: satu endpoint GET plus porsi POST /transactions
+        private static List<Operation> singleEndpoint(Map<String, String> options) {
+            double writeRatio = Double.parseDouble(options.getOrDefault("write-ratio", "0.0"));
+            String userId = options.getOrDefault("user-id", "1");
+            List<Operation> operations = new ArrayList<>();
+            if (writeRatio < 1.0) {
+                operations.add(new Operation(1.0 - writeRatio, "GET",
+                        options.getOrDefault("path", "/transactions/user/1/page?limit=20"), null));
+            }
+            if (writeRatio > 0.0) {
+                operations.add(new Operation(writeRatio, "POST", "/transactions",
+                        "{\"type\":\"EXPENSE\",\"amount\":{amount},\"categoryId\":1,\"userId\":" + userId +
+                        ",\"description\":\"load test\",\"transactionDate\":\"2025-01-15\"}"));
+            }
+            return operations;
+        }
+
+        private HttpRequest build(String baseUrl, Placeholders placeholders, SplittableRandom random) {
+            Map<String, String> values = placeholders.next(random);
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + placeholders.fill(path, values)))
+                    .timeout(Duration.ofSeconds(60));
+            if (body == null) {
+                return builder.method(method, HttpRequest.BodyPublishers.noBody()).build();
+            }
+            return builder.header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofString(placeholders.fill(body, values)))
+                    .build();
+        }
+    }
+
+    // Nilai acak untuk {user}, {category}, {date} dan {amount}; satu set nilai per request
+    private static class Placeholders {
+        private final double[] userCdf;
+        private final int[] userByRank;
+        private final int minCategory;
+        private final int maxCategory;
+        private final LocalDate endDate;
+
+        private Placeholders(Map<String, String> options) {
+            int users = Integer.parseInt(options.getOrDefault("users", options.getOrDefault("user-id", "1")));
+            double zipf = Double.parseDouble(options.getOrDefault("zipf", "1.1"));
+            userCdf = new double[users];
+            double sum = 0;
+            for (int k = 0; k < users; k++) {
+                sum += 1.0 / Math.pow(k + 1, zipf);
+                userCdf[k] = sum;
+            }
+            for (int k = 0; k < users; k++) {
+                userCdf[k] /= sum;
+            }
+            // Rank -> id user diacak dengan seed tetap supaya user "panas" sama di setiap run
+            userByRank = new int[users];
+            for (int i = 0; i < users; i++) {
+                userByRank[i] = i + 1;
+            }
+            SplittableRandom shuffle = new SplittableRandom(Long.parseLong(options.getOrDefault("seed", "42")));
+            for (int i = users - 1; i > 0; i--) {
+                int j = shuffle.nextInt(i + 1);
+                int tmp = userByRank[i];
+                userByRank[i] = userByRank[j];
+                userByRank[j] = tmp;
+            }
+            String[] categories = options.getOrDefault("category-ids", "4-9").split("-");
+            minCategory = Integer.parseInt(categories[0]);
+            maxCategory = Integer.parseInt(categories[categories.length - 1]);
+            endDate = LocalDate.parse(options.getOrDefault("end-date", "2025-12-31"));
+        }
+
+        private Map<String, String> next(SplittableRandom random) {
+            int rank = Arrays.binarySearch(userCdf, random.nextDouble());
+            rank = Math.min(userCdf.length - 1, rank >= 0 ? rank : -rank - 1);
+            Map<String, String> values = new HashMap<>();
+            values.put("user", String.valueOf(userByRank[rank]));
+            values.put("category", String.valueOf(minCategory + random.nextInt(maxCategory - minCategory + 1)));
+            values.put("date", endDate.minusDays(random.nextInt(365)).toString());
+            values.put("amount", String.valueOf(1000 + random.nextInt(100000)));
+            return values;
+        }
+
+        private String fill(String template, Map<String, String> values) {
+            String result = template;
+            for (Map.Entry<String, String> entry : values.entrySet()) {
+                result = result.replace("{" + entry.getKey() + "}", entry.getValue());
+            }
+            return result;
+        }
+    }
+}
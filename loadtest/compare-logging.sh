@@ -0,0 +1,43 @@
+#!/bin/bash
+# Membandingkan latency POST /transactions antara logging default (console sinkron, SQL log, DEBUG)
+# dan profile prod (JSON lewat async ring-buffer appender, tanpa SQL log).
+# Log backend ditulis ke file di target/ seperti di server sungguhan.
+#
+# Pemakaian: ./loadtest/compare-logging.sh [clients] [duration-detik] [opsi LoadTest lain...]
+# Argumen tambahan untuk backend bisa diberikan lewat APP_ARGS, misalnya:
+#   APP_ARGS="--spring.datasource.url=jdbc:sqlite:/data/big.db" ./loadtest/compare-logging.sh
+
+set -e
+cd "$(dirname "$0")/.."
+
+CLIENTS=${1:-50}
+DURATION=${2:-30}
+shift 2 2>/dev/null || true
+JAR=target/expense-tracker-backend-1.0.0-exec.jar
+
+echo "Building backend..."
+mvn -q -B package -DskipTests
+
+run_case() {
+    local profile=$1
+    shift
+    echo
+    echo "========================================"
+    echo "profile=$profile"
+    echo "========================================"
+    java -jar "$JAR" --spring.profiles.active="$profile" --rate-limit.enabled=false --load-shedding.enabled=false $APP_ARGS > "target/loadtest-logging-$profile.log" 2>&1 &
+    local pid=$!
+    for i in $(seq 1 60); do
+        if curl -s -o /dev/null http://localhost:8080/actuator/health; then
+            break
+        fi
+        sleep 1
+    done
+    java loadtest/LoadTest.java --clients="$CLIENTS" --duration="$DURATION" --write-ratio=1.0 "$@"
+    kill $pid
+    wait $pid 2>/dev/null || true
+    echo "log: $(wc -l < "target/loadtest-logging-$profile.log") baris di target/loadtest-logging-$profile.log"
+}
+
+run_case default "$@"
+run_case prod "$@"
@@ -0,0 +1,49 @@
+#!/bin/bash
+# Membandingkan throughput dengan dan tanpa virtual threads pada 1000 client bersamaan.
+# Butuh Java 21+ di PATH dan database yang sudah di-setup (setup-database.sh).
+#
+# Pemakaian: ./loadtest/compare-virtual-threads.sh [clients] [duration-detik] [opsi LoadTest lain...]
+# Argumen tambahan untuk backend bisa diberikan lewat APP_ARGS, misalnya:
+#   APP_ARGS="--spring.datasource.url=jdbc:sqlite:/data/big.db" ./loadtest/compare-virtual-threads.sh
+
+set -e
+cd "$(dirname "$0")/.."
+
+CLIENTS=${1:-1000}
+DURATION=${2:-30}
+shift 2 2>/dev/null || true
+JAR=target/expense-tracker-backend-1.0.0-exec.jar
+
+JAVA_MAJOR=$(java -XshowSettings:properties -version 2>&1 | grep 'java.specification.version' | awk '{print $3}')
+if [ "${JAVA_MAJOR%%.*}" -lt 21 ]; then
+    echo "ERROR: Java 21+ dibutuhkan untuk virtual threads (ditemukan: $JAVA_MAJOR)"
+    exit 1
+fi
+
+echo "Building backend..."
+mvn -q -B package -DskipTests
+
+run_case() {
+    local virtual=$1
+    echo
+    echo "========================================"
+    echo "spring.threads.virtual.enabled=$virtual"
+    echo "========================================"
+    java -jar "$JAR" --spring.threads.virtual.enabled="$virtual" \
+        --logging.level.root=WARN --logging.level.com.expensetracker=WARN \
+        --logging.level.org.springframework.security=WARN --logging.level.org.hibernate.SQL=WARN --logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN \
+        --spring.jpa.show-sql=false --rate-limit.enabled=false --load-shedding.enabled=false $APP_ARGS > "target/loadtest-virtual-$virtual.log" 2>&1 &
+    local pid=$!
+    for i in $(seq 1 60); do
+        if curl -s -o /dev/null http://localhost:8080/actuator/health; then
+            break
+        fi
+        sleep 1
+    done
+    java loadtest/LoadTest.java --clients="$CLIENTS" --duration="$DURATION" "$@"
+    kill $pid
+    wait $pid 2>/dev/null || true
+}
+
+run_case false "$@"
+run_case true "$@"
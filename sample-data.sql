@@ -17,16 +17,16 @@ INSERT OR IGNORE INTO categories (name, type, color, icon, is_default, user_id)
 ('Gaji', 'INCOME', '#9966FF', '💰', 1, NULL),
 ('Bonus', 'INCOME', '#FF9F40', '🎁', 1, NULL);
 
--- Sample Transactions (format: YYYY-MM-DD)
+-- Sample Transactions (amount dalam 1/100 Rupiah, tanggal sebagai epoch day)
 INSERT OR IGNORE INTO transactions (user_id, type, amount, category_id, description, transaction_date) VALUES
-(1, 'EXPENSE', 50000.0, 1, 'Makan siang', '2025-08-17'),
-(1, 'EXPENSE', 25000.0, 2, 'Bensin motor', '2025-08-17'),
-(1, 'INCOME', 5000000.0, 5, 'Gaji bulanan', '2025-08-01');
+(1, 'EXPENSE', 5000000, 1, 'Makan siang', CAST(julianday('2025-08-17') - 2440587.5 AS INTEGER)),
+(1, 'EXPENSE', 2500000, 2, 'Bensin motor', CAST(julianday('2025-08-17') - 2440587.5 AS INTEGER)),
+(1, 'INCOME', 500000000, 5, 'Gaji bulanan', CAST(julianday('2025-08-01') - 2440587.5 AS INTEGER));
 
--- Sample Budgets
+-- Sample Budgets (amount dalam 1/100 Rupiah, tanggal sebagai epoch day)
 INSERT OR IGNORE INTO budgets (user_id, category_id, amount, period, start_date, end_date, is_active) VALUES
-(1, 1, 1000000.0, 'MONTHLY', '2025-08-01', '2025-08-31', 1),
-(1, 2, 500000.0, 'MONTHLY', '2025-08-01', '2025-08-31', 1);
+(1, 1, 100000000, 'MONTHLY', CAST(julianday('2025-08-01') - 2440587.5 AS INTEGER), CAST(julianday('2025-08-31') - 2440587.5 AS INTEGER), 1),
+(1, 2, 50000000, 'MONTHLY', CAST(julianday('2025-08-01') - 2440587.5 AS INTEGER), CAST(julianday('2025-08-31') - 2440587.5 AS INTEGER), 1);
 
 -- Sample Settings
 INSERT OR IGNORE INTO settings (user_id, setting_key, setting_value) VALUES
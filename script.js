@@ -2,6 +2,8 @@
 class ApiService {
     constructor() {
         this.baseUrl = 'http://localhost:8080';
+        // Last ETag and body per GET endpoint, used for conditional requests (If-None-Match)
+        this.etagCache = new Map();
     }
 
     async makeRequest(endpoint, options = {}) {
@@ -11,15 +13,25 @@ class ApiService {
                 console.log('Request Body:', options.body);
             }
 
+            const isGet = !options.method || options.method === 'GET';
+            const cached = isGet ? this.etagCache.get(endpoint) : null;
+
             const response = await fetch(`${this.baseUrl}${endpoint}`, {
+                ...options,
                 headers: {
                     'Content-Type': 'application/json',
+                    ...(cached ? { 'If-None-Match': cached.etag } : {}),
                     ...options.headers
-                },
-                ...options
+                }
             });
 
             console.log(`API Response Status: ${response.status}`);
+
+            // Unchanged on the server: reuse the previous body (same object, so callers can detect "no change")
+            if (response.status === 304 && cached) {
+                return cached.data;
+            }
+
             console.log(`API Response Headers:`, Object.fromEntries(response.headers.entries()));
 
             if (!response.ok) {
@@ -30,6 +42,11 @@ class ApiService {
 
             const data = await response.json();
             console.log('API Response Data:', data);
+
+            const etag = response.headers.get('ETag');
+            if (isGet && etag) {
+                this.etagCache.set(endpoint, { etag, data });
+            }
             return data;
         } catch (error) {
             console.error('API Error Details:', error);
@@ -56,8 +73,16 @@ class ApiService {
     }
 
     // Transaction API calls
-    async getTransactions() {
-        return this.makeRequest('/transactions');
+    async getTransactionsPage(userId, cursor = null, limit = 50) {
+        const params = new URLSearchParams({ limit: limit });
+        if (cursor) {
+            params.set('cursor', cursor);
+        }
+        return this.makeRequest(`/transactions/user/${userId}/page?${params.toString()}`);
+    }
+
+    async getSummary(userId) {
+        return this.makeRequest(`/transactions/summary?userId=${userId}`);
     }
 
     async createTransaction(transaction) {
@@ -79,6 +104,18 @@ class ApiService {
             method: 'DELETE'
         });
     }
+
+    // Settings API calls (values are strings)
+    async getSettings(userId) {
+        return this.makeRequest(`/settings/user/${userId}`);
+    }
+
+    async updateSettings(userId, values) {
+        return this.makeRequest(`/settings/user/${userId}`, {
+            method: 'PUT',
+            body: JSON.stringify(values)
+        });
+    }
 }
 
 // Initialize API Service
@@ -86,7 +123,11 @@ const apiService = new ApiService();
 
 class ExpenseTracker {
     constructor() {
+        this.userId = 1; // Default user ID for now
         this.transactions = [];
+        this.nextCursor = null;
+        this.firstPage = null;
+        this.summary = null;
         this.categories = [];
         this.users = [];
         this.initialBalance = 0;
@@ -103,6 +144,7 @@ class ExpenseTracker {
             // Setup UI
             this.setupEventListeners();
             this.renderAll();
+            this.startPolling();
         } catch (error) {
             console.error('Failed to initialize:', error);
             // Fallback to localStorage if API fails
@@ -115,14 +157,21 @@ class ExpenseTracker {
             // Load categories first (needed for transaction form)
             this.categories = await apiService.getCategories();
             
-            // Load transactions
-            this.transactions = await apiService.getTransactions();
+            // Load first page of transactions (keyset pagination)
+            const page = await apiService.getTransactionsPage(this.userId);
+            this.firstPage = page;
+            this.transactions = page.items;
+            this.nextCursor = page.nextCursor;
+
+            // Load totals and chart data (aggregated by the server)
+            this.summary = await apiService.getSummary(this.userId);
             
             // Load users
             this.users = await apiService.getUsers();
             
-            // Load initial balance from localStorage (fallback)
-            this.initialBalance = parseFloat(localStorage.getItem('initialBalance')) || 0;
+            // Load initial balance from the user's settings
+            const settings = await apiService.getSettings(this.userId);
+            this.initialBalance = await this.migrateInitialBalance(settings);
             
             console.log('Data loaded from API:', {
                 categories: this.categories.length,
@@ -135,9 +184,89 @@ class ExpenseTracker {
         }
     }
 
+    async loadMoreTransactions() {
+        if (!this.nextCursor || this.isUpdating) return;
+
+        try {
+            const page = await apiService.getTransactionsPage(this.userId, this.nextCursor);
+            this.transactions = this.transactions.concat(page.items);
+            this.nextCursor = page.nextCursor;
+            this.renderAll();
+        } catch (error) {
+            console.error('Failed to load more transactions:', error);
+            alert('Gagal memuat transaksi berikutnya. Silakan coba lagi.');
+        }
+    }
+
+    // Poll for changes made elsewhere; unchanged endpoints answer 304 without touching the database
+    startPolling(intervalMs = 30000) {
+        setInterval(() => this.pollForChanges(), intervalMs);
+    }
+
+    async pollForChanges() {
+        if (this.isUpdating) return;
+
+        try {
+            const [categories, page, summary] = await Promise.all([
+                apiService.getCategories(),
+                apiService.getTransactionsPage(this.userId),
+                apiService.getSummary(this.userId)
+            ]);
+
+            // A 304 hands back the cached object, so identity tells us whether anything changed
+            let changed = false;
+            if (categories !== this.categories) {
+                this.categories = categories;
+                changed = true;
+            }
+            if (page !== this.firstPage) {
+                this.firstPage = page;
+                this.transactions = page.items;
+                this.nextCursor = page.nextCursor;
+                changed = true;
+            }
+            if (summary !== this.summary) {
+                this.summary = summary;
+                changed = true;
+            }
+            if (changed) {
+                this.renderAll();
+            }
+        } catch (error) {
+            console.error('Polling failed:', error);
+        }
+    }
+
+    async refreshSummary() {
+        try {
+            this.summary = await apiService.getSummary(this.userId);
+        } catch (error) {
+            console.error('Failed to refresh summary:', error);
+        }
+    }
+
+    // Only used offline: aggregate the locally stored transactions in the same shape as /transactions/summary
+    buildLocalSummary() {
+        const summary = { totalIncome: 0, totalExpense: 0, byCategory: [] };
+        const byCategory = {};
+        this.transactions.forEach(t => {
+            if (t.type === 'INCOME') summary.totalIncome += t.amount;
+            if (t.type === 'EXPENSE') summary.totalExpense += t.amount;
+            const key = `${t.categoryId}-${t.type}`;
+            if (!byCategory[key]) {
+                byCategory[key] = { categoryId: t.categoryId, type: t.type, total: 0, count: 0 };
+                summary.byCategory.push(byCategory[key]);
+            }
+            byCategory[key].total += t.amount;
+            byCategory[key].count += 1;
+        });
+        return summary;
+    }
+
     fallbackToLocalStorage() {
         console.log('Falling back to localStorage...');
         this.transactions = JSON.parse(localStorage.getItem('transactions')) || [];
+        this.summary = this.buildLocalSummary();
         this.initialBalance = parseFloat(localStorage.getItem('initialBalance')) || 0;
         this.categories = [
             { id: 1, name: 'Gaji', type: 'INCOME', color: '#4CAF50', icon: '💰' },
@@ -169,6 +298,12 @@ class ExpenseTracker {
             typeFilter.addEventListener('change', () => this.debouncedRender());
         }
 
+        // Load next page of transactions
+        const loadMoreBtn = document.getElementById('loadMoreBtn');
+        if (loadMoreBtn) {
+            loadMoreBtn.addEventListener('click', () => this.loadMoreTransactions());
+        }
+
         // Auto-format amount input field
         const amountInput = document.getElementById('amount');
         if (amountInput) {
@@ -258,7 +393,18 @@ class ExpenseTracker {
         }
     }
 
-    setInitialBalance() {
+    // One-time move of a balance saved by older versions in localStorage to the settings API
+    async migrateInitialBalance(settings) {
+        const stored = localStorage.getItem('initialBalance');
+        if (settings.initialBalance === undefined && stored !== null) {
+            await apiService.updateSettings(this.userId, { initialBalance: stored });
+            localStorage.removeItem('initialBalance');
+            return parseFloat(stored) || 0;
+        }
+        return parseFloat(settings.initialBalance) || 0;
+    }
+
+    async setInitialBalance() {
         const input = document.getElementById('initialBalance');
         if (!input) return;
         
@@ -276,7 +422,13 @@ class ExpenseTracker {
         }
         
         this.initialBalance = balance;
-        localStorage.setItem('initialBalance', balance.toString());
+        try {
+            await apiService.updateSettings(this.userId, { initialBalance: balance.toString() });
+        } catch (error) {
+            // Offline: keep it locally, the settings API picks it up on the next load
+            console.error('Failed to save initial balance:', error);
+            localStorage.setItem('initialBalance', balance.toString());
+        }
         
         // Update display
         this.renderAll();
@@ -289,17 +441,27 @@ class ExpenseTracker {
     }
 
     getCurrentBalance() {
-        const totalIncome = this.transactions
-            .filter(t => t.type === 'INCOME')
-            .reduce((sum, t) => sum + t.amount, 0);
-            
-        const totalExpense = this.transactions
-            .filter(t => t.type === 'EXPENSE')
-            .reduce((sum, t) => sum + t.amount, 0);
+        const totalIncome = this.summary ? this.summary.totalIncome : 0;
+        const totalExpense = this.summary ? this.summary.totalExpense : 0;
             
         return this.initialBalance + totalIncome - totalExpense;
     }
 
+    // Expense totals per category name, from the server-side summary
+    getExpenseByCategory() {
+        const expenseData = {};
+        if (!this.summary) return expenseData;
+
+        this.summary.byCategory
+            .filter(c => c.type === 'EXPENSE')
+            .forEach(c => {
+                const category = this.categories.find(cat => cat.id === c.categoryId);
+                const categoryName = category ? category.name : 'Unknown';
+                expenseData[categoryName] = (expenseData[categoryName] || 0) + c.total;
+            });
+        return expenseData;
+    }
+
     async addTransaction() {
         if (this.isUpdating) return;
         
@@ -331,7 +493,7 @@ class ExpenseTracker {
                 categoryId: parseInt(category), // Ensure integer
                 description: description.trim(), // Trim whitespace
                 transactionDate: new Date().toISOString().split('T')[0], // YYYY-MM-DD format
-                userId: 1 // Default user ID for now
+                userId: this.userId
             };
 
             console.log('Sending transaction data:', transactionData);
@@ -341,8 +503,9 @@ class ExpenseTracker {
             
             console.log('Transaction created successfully:', newTransaction);
             
-            // Add to local array
-            this.transactions.push(newTransaction);
+            // Add to local array (newest first, same order as the API)
+            this.transactions.unshift(newTransaction);
+            await this.refreshSummary();
             
             // Update display
             this.renderAll();
@@ -387,6 +550,7 @@ class ExpenseTracker {
             
             // Remove from local array
             this.transactions = this.transactions.filter(t => t.id !== id);
+            await this.refreshSummary();
             
             // Update display
             this.renderAll();
@@ -460,13 +624,8 @@ class ExpenseTracker {
     }
 
     updateSummary() {
-        const totalIncome = this.transactions
-            .filter(t => t.type === 'INCOME')
-            .reduce((sum, t) => sum + t.amount, 0);
-            
-        const totalExpense = this.transactions
-            .filter(t => t.type === 'EXPENSE')
-            .reduce((sum, t) => sum + t.amount, 0);
+        const totalIncome = this.summary ? this.summary.totalIncome : 0;
+        const totalExpense = this.summary ? this.summary.totalExpense : 0;
             
         const currentBalance = this.getCurrentBalance();
         
@@ -539,6 +698,12 @@ class ExpenseTracker {
         // Clear and append in one operation
         tbody.innerHTML = '';
         tbody.appendChild(fragment);
+
+        // Only show "load more" while the server has more pages
+        const loadMoreBtn = document.getElementById('loadMoreBtn');
+        if (loadMoreBtn) {
+            loadMoreBtn.style.display = this.nextCursor ? 'inline-block' : 'none';
+        }
     }
 
     updateChart() {
@@ -548,14 +713,7 @@ class ExpenseTracker {
         }
 
         // Get expense data by category
-        const expenseData = {};
-        this.transactions
-            .filter(t => t.type === 'EXPENSE')
-            .forEach(t => {
-                const category = this.categories.find(c => c.id === t.categoryId);
-                const categoryName = category ? category.name : 'Unknown';
-                expenseData[categoryName] = (expenseData[categoryName] || 0) + t.amount;
-            });
+        const expenseData = this.getExpenseByCategory();
 
         const labels = Object.keys(expenseData);
         const data = Object.values(expenseData);
@@ -590,14 +748,7 @@ class ExpenseTracker {
         }
 
         // Get expense data by category
-        const expenseData = {};
-        this.transactions
-            .filter(t => t.type === 'EXPENSE')
-            .forEach(t => {
-                const category = this.categories.find(c => c.id === t.categoryId);
-                const categoryName = category ? category.name : 'Unknown';
-                expenseData[categoryName] = (expenseData[categoryName] || 0) + t.amount;
-            });
+        const expenseData = this.getExpenseByCategory();
 
         const labels = Object.keys(expenseData);
         const data = Object.values(expenseData);
@@ -726,6 +877,19 @@ if (!document.getElementById('expense-tracker-styles')) {
         .delete-btn:hover {
             background: #d32f2f;
         }
+        .load-more-btn {
+            margin-top: 15px;
+            background: #667eea;
+            color: white;
+            border: none;
+            padding: 8px 16px;
+            border-radius: 5px;
+            cursor: pointer;
+            font-size: 14px;
+        }
+        .load-more-btn:hover {
+            background: #5a6fd6;
+        }
     `;
     document.head.appendChild(style);
 }
@@ -1,5 +1,7 @@
 package com.expensetracker;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
@@ -8,10 +10,12 @@ import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 @EnableJpaAuditing
 public class ExpenseTrackerApplication {
 
+    private static final Logger log = LoggerFactory.getLogger(ExpenseTrackerApplication.class);
+
     public static void main(String[] args) {
         SpringApplication.run(ExpenseTrackerApplication.class, args);
-        System.out.println("🚀 Expense Tracker Backend berhasil dijalankan!");
-        System.out.println("📍 API tersedia di: http://localhost:8080/api");
-        System.out.println("📊 Health check: http://localhost:8080/api/actuator/health");
+        log.info("🚀 Expense Tracker Backend berhasil dijalankan!");
+        log.info("📍 API tersedia di: http://localhost:8080/api");
+        log.info("📊 Health check: http://localhost:8080/api/actuator/health");
     }
 }
@@ -0,0 +1,19 @@
+package com.expensetracker.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Mengaktifkan Spring Cache. Cache manager (Caffeine), nama cache dan batas ukuran/TTL
+ * diatur lewat spring.cache.* di application.properties.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String CATEGORIES = "categories";
+    public static final String CATEGORIES_BY_TYPE = "categoriesByType";
+    public static final String CATEGORIES_BY_USER = "categoriesByUser";
+    public static final String CATEGORY = "category";
+    public static final String SETTINGS = "settings";
+}
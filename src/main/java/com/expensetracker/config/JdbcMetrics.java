@@ -0,0 +1,178 @@
+package com.expensetracker.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Membungkus DataSource SQLite (di bawah Hikari) dengan proxy JDBC untuk metrics:
+ * - jdbc.statement.duration: durasi execute* per statement (tag pool, command)
+ * - jdbc.result.rows: jumlah baris yang dibaca dari ResultSet, dicatat saat ResultSet ditutup
+ * Tag command hanya kata pertama SQL (SELECT/INSERT/...) supaya kardinalitas tetap kecil.
+ */
+public final class JdbcMetrics {
+
+    private static final Set<String> COMMANDS = Set.of(
+        "SELECT", "INSERT", "UPDATE", "DELETE", "WITH", "PRAGMA", "CREATE", "DROP", "ALTER", "ANALYZE");
+
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+        "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private final String pool;
+    private final MeterRegistry registry;
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, DistributionSummary> rowSummaries = new ConcurrentHashMap<>();
+
+    private JdbcMetrics(String pool, MeterRegistry registry) {
+        this.pool = pool;
+        this.registry = registry;
+    }
+
+    public static DataSource wrap(DataSource target, String pool, MeterRegistry registry) {
+        JdbcMetrics metrics = new JdbcMetrics(pool, registry);
+        return proxy(DataSource.class, target, (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            return result instanceof Connection connection ? metrics.wrapConnection(connection) : result;
+        });
+    }
+
+    private Connection wrapConnection(Connection connection) {
+        return proxy(Connection.class, connection, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (result instanceof CallableStatement statement) {
+                return wrapStatement(CallableStatement.class, statement, command((String) args[0]));
+            }
+            if (result instanceof PreparedStatement statement) {
+                return wrapStatement(PreparedStatement.class, statement, command((String) args[0]));
+            }
+            if (result instanceof Statement statement) {
+                return wrapStatement(Statement.class, statement, null);
+            }
+            return result;
+        });
+    }
+
+    // preparedCommand null untuk Statement biasa; command diambil dari SQL yang dieksekusi
+    private <T extends Statement> T wrapStatement(Class<T> type, T statement, String preparedCommand) {
+        String[] lastCommand = {preparedCommand != null ? preparedCommand : "OTHER"};
+        return proxy(type, statement, (proxy, method, args) -> {
+            String name = method.getName();
+            if (EXECUTE_METHODS.contains(name)) {
+                String command = preparedCommand;
+                if (command == null) {
+                    command = args != null && args.length > 0 && args[0] instanceof String sql ? command(sql) : lastCommand[0];
+                    lastCommand[0] = command;
+                }
+                long start = System.nanoTime();
+                try {
+                    Object result = invoke(statement, method, args);
+                    return result instanceof ResultSet resultSet ? wrapResultSet(resultSet, command) : result;
+                } finally {
+                    timer(command).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }
+            if (name.equals("addBatch") && preparedCommand == null && args != null && args.length == 1) {
+                lastCommand[0] = command((String) args[0]);
+            }
+            Object result = invoke(statement, method, args);
+            return result instanceof ResultSet resultSet ? wrapResultSet(resultSet, lastCommand[0]) : result;
+        });
+    }
+
+    private ResultSet wrapResultSet(ResultSet resultSet, String command) {
+        long[] rows = {0};
+        boolean[] recorded = {false};
+        return proxy(ResultSet.class, resultSet, (proxy, method, args) -> {
+            Object result = invoke(resultSet, method, args);
+            String name = method.getName();
+            if (name.equals("next") && Boolean.TRUE.equals(result)) {
+                rows[0]++;
+            } else if (name.equals("close") && !recorded[0]) {
+                recorded[0] = true;
+                rowSummary(command).record(rows[0]);
+            }
+            return result;
+        });
+    }
+
+    private Timer timer(String command) {
+        return timers.computeIfAbsent(command, c -> Timer.builder("jdbc.statement.duration")
+            .description("Durasi eksekusi statement JDBC")
+            .tag("pool", pool)
+            .tag("command", c)
+            .publishPercentileHistogram()
+            .register(registry));
+    }
+
+    private DistributionSummary rowSummary(String command) {
+        return rowSummaries.computeIfAbsent(command, c -> DistributionSummary.builder("jdbc.result.rows")
+            .description("Jumlah baris yang dibaca dari satu ResultSet")
+            .baseUnit("rows")
+            .tag("pool", pool)
+            .tag("command", c)
+            .publishPercentileHistogram()
+            .minimumExpectedValue(1.0)
+            .maximumExpectedValue(1_000_000.0)
+            .register(registry));
+    }
+
+    static String command(String sql) {
+        if (sql == null) {
+            return "OTHER";
+        }
+        int start = 0;
+        while (start < sql.length() && (Character.isWhitespace(sql.charAt(start)) || sql.charAt(start) == '(')) {
+            start++;
+        }
+        // Hibernate dengan use_sql_comments menaruh komentar /* ... */ di depan SQL
+        if (sql.startsWith("/*", start)) {
+            int end = sql.indexOf("*/", start);
+            return end < 0 ? "OTHER" : command(sql.substring(end + 2));
+        }
+        int end = start;
+        while (end < sql.length() && Character.isLetter(sql.charAt(end))) {
+            end++;
+        }
+        String word = sql.substring(start, end).toUpperCase(Locale.ROOT);
+        return COMMANDS.contains(word) ? word : "OTHER";
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(JdbcMetrics.class.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+            // Method Object ditangani di proxy; method JDBC lain (termasuk unwrap) diteruskan ke objek asli
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> target.toString();
+                };
+            }
+            return handler.invoke(proxy, method, args);
+        });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
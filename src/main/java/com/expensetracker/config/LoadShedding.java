@@ -0,0 +1,24 @@
+package com.expensetracker.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Menolak request ke endpoint tulis ini dengan 503 + Retry-After saat penulis SQLite kewalahan:
+ * semua request jika antrian penulis mencapai maxQueueDepth, atau sebagian request (porsinya
+ * menyesuaikan tiap detik) selama p99 latency endpoint di atas maxP99Ms. Lihat LoadShedder.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface LoadShedding {
+
+    // Nama endpoint untuk latency dan tag metrics
+    String value();
+
+    // Request yang menunggu penulis menahan thread Tomcat (default 200); sisanya tetap untuk request baca
+    int maxQueueDepth() default 100;
+
+    long maxP99Ms() default 1000;
+}
@@ -0,0 +1,27 @@
+package com.expensetracker.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Token bucket untuk endpoint ini, terpisah per user (principal JWT) dan per IP client.
+ * Diperiksa oleh WriteProtectionInterceptor; request yang melewati batas dijawab 429 + Retry-After.
+ * Nilai perSecond 0 berarti tidak dibatasi untuk kunci itu.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RateLimited {
+
+    // Nama endpoint untuk bucket dan tag metrics
+    String value();
+
+    double userPerSecond() default 0;
+
+    int userBurst() default 1;
+
+    double ipPerSecond() default 0;
+
+    int ipBurst() default 1;
+}
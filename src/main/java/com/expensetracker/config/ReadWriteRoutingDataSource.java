@@ -0,0 +1,21 @@
+package com.expensetracker.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Memilih pool berdasarkan transaksi yang sedang berjalan:
+ * transaksi readOnly ke pool baca, selain itu ke pool tulis (satu koneksi).
+ * Harus dibungkus LazyConnectionDataSourceProxy supaya koneksi baru diambil
+ * setelah flag readOnly transaksi sudah di-set.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String WRITE = "write";
+    public static final String READ = "read";
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? READ : WRITE;
+    }
+}
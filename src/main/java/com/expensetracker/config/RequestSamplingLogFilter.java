@@ -0,0 +1,48 @@
+package com.expensetracker.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Log DEBUG untuk sebagian kecil request (request-log.sample-rate) sebagai key-value terstruktur.
+ * Request yang tidak terpilih, atau saat level DEBUG mati, hanya membayar satu pengecekan.
+ */
+@Component
+public class RequestSamplingLogFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestSamplingLogFilter.class);
+
+    @Value("${request-log.sample-rate:0.01}")
+    private double sampleRate;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!log.isDebugEnabled() || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            log.atDebug()
+                .addKeyValue("method", request.getMethod())
+                .addKeyValue("uri", request.getRequestURI())
+                .addKeyValue("query", request.getQueryString())
+                .addKeyValue("status", response.getStatus())
+                .addKeyValue("durationMs", (System.nanoTime() - start) / 1_000_000.0)
+                .log("Sampled request");
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.expensetracker.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Menjalankan perubahan schema yang idempotent saat startup, supaya database lama
+ * (dibuat dari database-schema.sql versi sebelumnya) ikut mendapat index/tabel baru.
+ * Setiap statement harus aman dijalankan berulang kali (IF NOT EXISTS).
+ * Langkah yang terlalu mahal untuk diulang di setiap startup ditandai dengan PRAGMA user_version.
+ * Dijalankan setelah TypedColumnsMigration dan sebelum Hibernate serta web server start, jadi request
+ * pertama tidak pernah melihat tabel/index yang belum dibuat.
+ */
+@Component("schemaUpgrade")
+@DependsOn("typedColumnsMigration")
+public class SchemaUpgrade implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaUpgrade.class);
+
+    private static final List<String> STATEMENTS = List.of(
+        // Keyset pagination global: ORDER BY transaction_date DESC, id DESC
+        "CREATE INDEX IF NOT EXISTS idx_transactions_date ON transactions(transaction_date)",
+        // Rollup bulanan per (user, kategori, jenis, YYYY-MM)
+        "CREATE TABLE IF NOT EXISTS transaction_monthly_rollup (" +
+        "user_id INTEGER NOT NULL, " +
+        "category_id INTEGER NOT NULL, " +
+        "type TEXT NOT NULL, " +
+        "month TEXT NOT NULL, " +
+        "total INTEGER NOT NULL DEFAULT 0, " +
+        "txn_count INTEGER NOT NULL DEFAULT 0, " +
+        "PRIMARY KEY (user_id, category_id, type, month), " +
+        "FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE, " +
+        "FOREIGN KEY (category_id) REFERENCES categories(id) ON DELETE CASCADE)",
+        // Isi awal rollup untuk database lama (juga setelah TypedColumnsMigration membuang rollup REAL);
+        // tidak melakukan apa-apa jika rollup sudah berisi
+        "INSERT INTO transaction_monthly_rollup (user_id, category_id, type, month, total, txn_count) " +
+        "SELECT user_id, category_id, type, strftime('%Y-%m', transaction_date + 2440587.5) AS month, SUM(amount), COUNT(*) " +
+        "FROM transactions WHERE NOT EXISTS (SELECT 1 FROM transaction_monthly_rollup) " +
+        "GROUP BY user_id, category_id, type, month",
+        // Full-text search description (lihat database-schema.sql)
+        "CREATE VIRTUAL TABLE IF NOT EXISTS transactions_fts USING fts5(" +
+        "description, user_id, content='transactions', content_rowid='id', " +
+        "tokenize='unicode61 remove_diacritics 2', prefix='2 3')",
+        "CREATE TRIGGER IF NOT EXISTS transactions_fts_insert AFTER INSERT ON transactions BEGIN " +
+        "INSERT INTO transactions_fts (rowid, description, user_id) VALUES (new.id, new.description, new.user_id); END",
+        "CREATE TRIGGER IF NOT EXISTS transactions_fts_delete AFTER DELETE ON transactions BEGIN " +
+        "INSERT INTO transactions_fts (transactions_fts, rowid, description, user_id) " +
+        "VALUES ('delete', old.id, old.description, old.user_id); END",
+        "CREATE TRIGGER IF NOT EXISTS transactions_fts_update AFTER UPDATE OF description, user_id ON transactions " +
+        "WHEN old.description IS NOT new.description OR old.user_id IS NOT new.user_id BEGIN " +
+        "INSERT INTO transactions_fts (transactions_fts, rowid, description, user_id) " +
+        "VALUES ('delete', old.id, old.description, old.user_id); " +
+        "INSERT INTO transactions_fts (rowid, description, user_id) VALUES (new.id, new.description, new.user_id); END",
+        // Isi awal index FTS untuk database lama; transactions_fts_docsize berisi satu baris per dokumen terindeks
+        "INSERT INTO transactions_fts (rowid, description, user_id) " +
+        "SELECT id, description, user_id FROM transactions " +
+        "WHERE NOT EXISTS (SELECT 1 FROM transactions_fts_docsize)",
+        // Pencarian user: index trigram + index NOCASE untuk prefix pendek (lihat database-schema.sql)
+        "CREATE VIRTUAL TABLE IF NOT EXISTS users_fts USING fts5(" +
+        "name, email, content='users', content_rowid='id', tokenize='trigram')",
+        "CREATE TRIGGER IF NOT EXISTS users_fts_insert AFTER INSERT ON users BEGIN " +
+        "INSERT INTO users_fts (rowid, name, email) VALUES (new.id, new.name, new.email); END",
+        "CREATE TRIGGER IF NOT EXISTS users_fts_delete AFTER DELETE ON users BEGIN " +
+        "INSERT INTO users_fts (users_fts, rowid, name, email) VALUES ('delete', old.id, old.name, old.email); END",
+        "CREATE TRIGGER IF NOT EXISTS users_fts_update AFTER UPDATE OF name, email ON users " +
+        "WHEN old.name IS NOT new.name OR old.email IS NOT new.email BEGIN " +
+        "INSERT INTO users_fts (users_fts, rowid, name, email) VALUES ('delete', old.id, old.name, old.email); " +
+        "INSERT INTO users_fts (rowid, name, email) VALUES (new.id, new.name, new.email); END",
+        "INSERT INTO users_fts (rowid, name, email) " +
+        "SELECT id, name, email FROM users WHERE NOT EXISTS (SELECT 1 FROM users_fts_docsize)",
+        "CREATE INDEX IF NOT EXISTS idx_users_name_nocase ON users(name COLLATE NOCASE)",
+        "CREATE INDEX IF NOT EXISTS idx_users_email_nocase ON users(email COLLATE NOCASE)",
+        // Kolom anak foreign key tanpa index membuat setiap DELETE induk men-scan seluruh tabel anak
+        "CREATE INDEX IF NOT EXISTS idx_budgets_category ON budgets(category_id)",
+        "CREATE INDEX IF NOT EXISTS idx_rollup_category ON transaction_monthly_rollup(category_id)",
+        // Revocation JWT (TokenRevocationService)
+        "CREATE TABLE IF NOT EXISTS revoked_tokens (jti TEXT PRIMARY KEY, expires_at INTEGER NOT NULL)",
+        "CREATE TABLE IF NOT EXISTS revoked_user_tokens (user_id INTEGER PRIMARY KEY, revoked_before INTEGER NOT NULL)",
+        // revoked_before dulu epoch detik, sekarang epoch milidetik; nilai detik selalu di bawah 10^11.
+        // Token lama tanpa iat_ms dibandingkan dengan <=, jadi token dari detik S tetap ditolak oleh S * 1000
+        "UPDATE revoked_user_tokens SET revoked_before = revoked_before * 1000 WHERE revoked_before < 100000000000"
+    );
+
+    // user_version setelah baris yatim dibersihkan
+    private static final int FOREIGN_KEYS_VERSION = 1;
+
+    // Sebelum foreign key ditegakkan di setiap koneksi, menghapus user/kategori tidak ikut menghapus
+    // baris anaknya. Dibersihkan sekali seperti yang akan dilakukan ON DELETE CASCADE; urutannya
+    // induk dulu supaya anak dari kategori yatim ikut terhapus.
+    private static final List<String> ORPHAN_CLEANUP = List.of(
+        "DELETE FROM categories WHERE user_id IS NOT NULL AND user_id NOT IN (SELECT id FROM users)",
+        "DELETE FROM transactions WHERE user_id NOT IN (SELECT id FROM users) " +
+        "OR category_id NOT IN (SELECT id FROM categories)",
+        "DELETE FROM budgets WHERE user_id NOT IN (SELECT id FROM users) " +
+        "OR category_id NOT IN (SELECT id FROM categories)",
+        "DELETE FROM settings WHERE user_id NOT IN (SELECT id FROM users)"
+    );
+
+    private static final String ROLLUP_ORPHAN_CLEANUP =
+        "DELETE FROM transaction_monthly_rollup WHERE user_id NOT IN (SELECT id FROM users) " +
+        "OR category_id NOT IN (SELECT id FROM categories)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // EntityManagerFactory (dan validasi schema Hibernate) menunggu upgrade ini selesai
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor schemaUpgradeDependency() {
+        return new EntityManagerFactoryDependsOnPostProcessor("schemaUpgrade");
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        // Harus sebelum isi awal rollup: dengan foreign key aktif, baris yatim membuat INSERT-nya gagal
+        Integer version = jdbcTemplate.queryForObject("PRAGMA user_version", Integer.class);
+        if (version == null || version < FOREIGN_KEYS_VERSION) {
+            removeOrphans();
+            jdbcTemplate.execute("PRAGMA user_version = " + FOREIGN_KEYS_VERSION);
+        }
+        for (String sql : STATEMENTS) {
+            jdbcTemplate.execute(sql);
+        }
+    }
+
+    private void removeOrphans() {
+        long start = System.nanoTime();
+        int removed = 0;
+        for (String sql : ORPHAN_CLEANUP) {
+            removed += jdbcTemplate.update(sql);
+        }
+        // Tabel rollup belum ada di database yang sangat lama; dibuat oleh STATEMENTS
+        Integer rollupTables = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM sqlite_master WHERE type = 'table' AND name = 'transaction_monthly_rollup'",
+                Integer.class);
+        if (rollupTables != null && rollupTables > 0) {
+            removed += jdbcTemplate.update(ROLLUP_ORPHAN_CLEANUP);
+        }
+        log.info("Removed {} orphaned rows in {} ms", removed, (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -1,13 +1,23 @@
 package com.expensetracker.config;
 
+import com.expensetracker.service.JwtService;
+import com.expensetracker.service.PasswordHashingService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authorization.AuthenticatedAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.expression.WebExpressionAuthorizationManager;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -18,19 +28,34 @@ import java.util.Arrays;
 @EnableWebSecurity
 public class SecurityConfig {
 
+    // false: token yang dikirim tetap diverifikasi, tetapi endpoint API juga menerima request tanpa token
+    // (frontend lama belum login); true: endpoint API wajib membawa JWT dari POST /auth/login
+    @Value("${jwt.required:false}")
+    private boolean jwtRequired;
+
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, JwtService jwtService) throws Exception {
+        AuthorizationManager<RequestAuthorizationContext> api = jwtRequired
+            ? AuthenticatedAuthorizationManager.authenticated()
+            : (authentication, context) -> new AuthorizationDecision(true);
         http
             .csrf(csrf -> csrf.disable())
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .addFilterBefore(new JwtAuthenticationFilter(jwtService), UsernamePasswordAuthenticationFilter.class)
+            .exceptionHandling(exceptions -> exceptions.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
             .authorizeHttpRequests(auth -> auth
+                // Scrape Prometheus hanya dari mesin lokal (agent/sidecar), bukan dari browser
+                .requestMatchers("/actuator/prometheus").access(
+                    new WebExpressionAuthorizationManager("hasIpAddress('127.0.0.1') or hasIpAddress('::1')"))
                 .requestMatchers("/actuator/**").permitAll()
-                .requestMatchers("/users/**").permitAll() // Allow users endpoint
-                .requestMatchers("/categories/**").permitAll() // Allow categories endpoint
-                .requestMatchers("/transactions/**").permitAll() // Allow transactions endpoint
-                .requestMatchers("/budgets/**").permitAll() // Allow budgets endpoint
-                .requestMatchers("/settings/**").permitAll() // Allow settings endpoint
+                .requestMatchers("/auth/login").permitAll()
+                .requestMatchers("/auth/logout").authenticated()
+                .requestMatchers("/users/**").access(api)
+                .requestMatchers("/categories/**").access(api)
+                .requestMatchers("/transactions/**").access(api)
+                .requestMatchers("/budgets/**").access(api)
+                .requestMatchers("/settings/**").access(api)
                 .requestMatchers("/error").permitAll() // Allow error pages
                 .anyRequest().authenticated()
             );
@@ -38,9 +63,10 @@ public class SecurityConfig {
         return http.build();
     }
 
+    // BCrypt dengan cost hasil kalibrasi startup (lihat PasswordHashingService)
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordHashingService passwordHashingService) {
+        return passwordHashingService.encoder();
     }
 
     @Bean
@@ -49,6 +75,8 @@ public class SecurityConfig {
         configuration.setAllowedOriginPatterns(Arrays.asList("*"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        // Frontend membaca ETag untuk conditional GET (If-None-Match)
+        configuration.setExposedHeaders(Arrays.asList("ETag"));
         configuration.setAllowCredentials(true);
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
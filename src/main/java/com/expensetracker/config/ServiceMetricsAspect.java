@@ -0,0 +1,61 @@
+package com.expensetracker.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timer untuk setiap method public TransactionService, CategoryService dan UserService
+ * (service.method.duration, tag class/method/outcome) plus counter error per jenis exception.
+ * Dijalankan paling luar supaya waktu commit transaksi dan cache hit ikut terukur.
+ * Panggilan internal di dalam service yang sama tidak lewat proxy sehingga tidak terhitung.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServiceMetricsAspect {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Around("execution(public * com.expensetracker.service.TransactionService.*(..)) || " +
+            "execution(public * com.expensetracker.service.CategoryService.*(..)) || " +
+            "execution(public * com.expensetracker.service.UserService.*(..))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        String className = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        String method = joinPoint.getSignature().getName();
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            outcome = "error";
+            Counter.builder("service.method.errors")
+                    .description("Exception yang dilempar method service")
+                    .tag("class", className)
+                    .tag("method", method)
+                    .tag("exception", e.getClass().getSimpleName())
+                    .register(meterRegistry)
+                    .increment();
+            throw e;
+        } finally {
+            Timer.builder("service.method.duration")
+                    .description("Durasi method service, termasuk commit transaksi")
+                    .tag("class", className)
+                    .tag("method", method)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.expensetracker.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Konfigurasi datasource SQLite:
+ * - WAL + synchronous=NORMAL supaya pembaca tidak diblokir penulis dan commit lebih murah
+ * - busy_timeout sebagai pengaman terakhir terhadap SQLITE_BUSY
+ * - pool tulis dengan satu koneksi (penulisan diserialisasi di antrian Hikari, bukan lewat lock SQLite)
+ * - pool baca multi-koneksi untuk transaksi readOnly
+ * - koneksi driver dibungkus JdbcMetrics (latency statement dan ukuran result set per pool)
+ */
+@Configuration
+public class SqliteDataSourceConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(SqliteDataSourceConfig.class);
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Value("${sqlite.journal-mode:WAL}")
+    private String journalMode;
+
+    @Value("${sqlite.synchronous:NORMAL}")
+    private String synchronous;
+
+    @Value("${sqlite.busy-timeout-ms:5000}")
+    private int busyTimeoutMs;
+
+    @Value("${sqlite.mmap-size:268435456}")
+    private long mmapSize;
+
+    @Value("${sqlite.read-pool-size:0}")
+    private int readPoolSize;
+
+    @Value("${sqlite.write-wait-timeout-ms:30000}")
+    private long writeWaitTimeoutMs;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource writeDataSource() {
+        SQLiteConfig sqliteConfig = baseConfig();
+        sqliteConfig.setJournalMode(SQLiteConfig.JournalMode.valueOf(journalMode.toUpperCase()));
+
+        HikariConfig hikari = new HikariConfig();
+        hikari.setPoolName("sqlite-write");
+        hikari.setDataSource(sqliteDataSource(sqliteConfig, "sqlite-write"));
+        // SQLite hanya mengizinkan satu penulis; request lain menunggu giliran di pool
+        hikari.setMaximumPoolSize(1);
+        hikari.setMinimumIdle(1);
+        hikari.setConnectionTimeout(writeWaitTimeoutMs);
+        return new HikariDataSource(hikari);
+    }
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource readDataSource(@Qualifier("writeDataSource") HikariDataSource writeDataSource) {
+        // Mode WAL sudah di-set permanen oleh pool tulis, pool baca cukup pragma per koneksi
+        SQLiteConfig sqliteConfig = baseConfig();
+
+        HikariConfig hikari = new HikariConfig();
+        hikari.setPoolName("sqlite-read");
+        hikari.setDataSource(sqliteDataSource(sqliteConfig, "sqlite-read"));
+        hikari.setMaximumPoolSize(effectiveReadPoolSize());
+        // Penulisan yang salah rute ke pool baca langsung gagal, bukan diam-diam berebut lock
+        hikari.setConnectionInitSql("PRAGMA query_only = 1");
+        return new HikariDataSource(hikari);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("writeDataSource") HikariDataSource writeDataSource,
+                                 @Qualifier("readDataSource") HikariDataSource readDataSource) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource();
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(ReadWriteRoutingDataSource.WRITE, writeDataSource);
+        targets.put(ReadWriteRoutingDataSource.READ, readDataSource);
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(writeDataSource);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    // sqlite-jdbc memanggil native code di dalam method synchronized, sehingga virtual thread yang
+    // memegang koneksi akan mem-pin carrier thread-nya. Jumlah koneksi (baca + 1 tulis) dibatasi
+    // di bawah jumlah carrier supaya selalu ada carrier bebas untuk menangani request lain.
+    int effectiveReadPoolSize() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int requested = readPoolSize > 0 ? readPoolSize : cores;
+        if (!virtualThreads || Runtime.version().feature() < 21) {
+            return requested;
+        }
+        int carriers = Integer.getInteger("jdk.virtualThreadScheduler.parallelism", cores);
+        int limit = Math.max(1, carriers - 2);
+        if (requested > limit) {
+            log.info("Virtual threads aktif: sqlite read pool dibatasi {} -> {} koneksi agar tidak semua carrier thread ter-pin oleh JDBC",
+                     requested, limit);
+            return limit;
+        }
+        return requested;
+    }
+
+    private SQLiteConfig baseConfig() {
+        SQLiteConfig sqliteConfig = new SQLiteConfig();
+        sqliteConfig.setSynchronous(SQLiteConfig.SynchronousMode.valueOf(synchronous.toUpperCase()));
+        sqliteConfig.setBusyTimeout(busyTimeoutMs);
+        sqliteConfig.setPragma(SQLiteConfig.Pragma.MMAP_SIZE, Long.toString(mmapSize));
+        // PRAGMA foreign_keys berlaku per koneksi (PRAGMA di database-schema.sql tidak ikut ke pool);
+        // ON DELETE CASCADE dipakai oleh deleteUser/deleteCategory dan bulk delete
+        sqliteConfig.enforceForeignKeys(true);
+        return sqliteConfig;
+    }
+
+    private DataSource sqliteDataSource(SQLiteConfig sqliteConfig, String pool) {
+        SQLiteDataSource dataSource = new SQLiteDataSource(sqliteConfig);
+        dataSource.setUrl(url);
+        return JdbcMetrics.wrap(dataSource, pool, meterRegistry);
+    }
+}
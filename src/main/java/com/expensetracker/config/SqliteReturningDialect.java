@@ -0,0 +1,44 @@
+package com.expensetracker.config;
+
+import org.hibernate.community.dialect.SQLiteDialect;
+import org.hibernate.community.dialect.identity.SQLiteIdentityColumnSupport;
+import org.hibernate.dialect.identity.IdentityColumnSupport;
+
+import java.sql.Types;
+
+/**
+ * SQLiteDialect yang membaca id hasil insert entity (IDENTITY) dengan INSERT ... RETURNING id.
+ * Driver sqlite-jdbc tidak mengimplementasikan getGeneratedKeys dengan nama kolom, dan
+ * SELECT last_insert_rowid() terpisah berarti dua round-trip per insert.
+ * Aktif bersama hibernate.jdbc.use_get_generated_keys=false (butuh SQLite 3.35+).
+ * Kolom INTEGER SQLite selalu 64-bit, jadi field Long (amount, epoch day) dianggap cocok saat validasi schema.
+ */
+public class SqliteReturningDialect extends SQLiteDialect {
+
+    private static final IdentityColumnSupport IDENTITY_SUPPORT = new SQLiteIdentityColumnSupport() {
+        @Override
+        public boolean supportsInsertSelectIdentity() {
+            return true;
+        }
+
+        @Override
+        public String appendIdentitySelectToInsert(String identityColumnName, String insertString) {
+            return insertString + " returning " + identityColumnName;
+        }
+    };
+
+    @Override
+    public IdentityColumnSupport getIdentityColumnSupport() {
+        return IDENTITY_SUPPORT;
+    }
+
+    @Override
+    public boolean equivalentTypes(int typeCode1, int typeCode2) {
+        return super.equivalentTypes(typeCode1, typeCode2)
+            || isInteger(typeCode1) && isInteger(typeCode2);
+    }
+
+    private static boolean isInteger(int typeCode) {
+        return typeCode == Types.INTEGER || typeCode == Types.BIGINT;
+    }
+}
@@ -0,0 +1,191 @@
+package com.expensetracker.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Migrasi satu kali untuk database lama: tanggal TEXT "YYYY-MM-DD" menjadi epoch day (INTEGER)
+ * dan amount REAL menjadi satuan terkecil (INTEGER, x100) di tabel transactions dan budgets.
+ * Dijalankan sebelum Hibernate memvalidasi schema; database yang sudah bertipe INTEGER dilewati.
+ * SQLite tidak bisa mengubah tipe kolom, jadi tabel dibangun ulang (index/trigger ikut dibuat ulang).
+ */
+@Component("typedColumnsMigration")
+public class TypedColumnsMigration implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(TypedColumnsMigration.class);
+
+    // epoch day = julian day - 2440587.5 (julian day 1970-01-01 00:00)
+    private static final String EPOCH_DAY = "CAST(julianday(substr(%s, 1, 10)) - 2440587.5 AS INTEGER)";
+    private static final String MINOR_UNITS = "CAST(ROUND(%s * 100) AS INTEGER)";
+
+    private static final String TRANSACTIONS_DDL =
+        "CREATE TABLE transactions_typed (" +
+        "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+        "user_id INTEGER NOT NULL, " +
+        "type TEXT NOT NULL, " +
+        "amount INTEGER NOT NULL, " +
+        "category_id INTEGER NOT NULL, " +
+        "description TEXT, " +
+        "transaction_date INTEGER NOT NULL, " +
+        "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
+        "updated_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
+        "FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE, " +
+        "FOREIGN KEY (category_id) REFERENCES categories(id) ON DELETE CASCADE)";
+
+    private static final String TRANSACTIONS_COPY =
+        "INSERT INTO transactions_typed " +
+        "(id, user_id, type, amount, category_id, description, transaction_date, created_at, updated_at) " +
+        "SELECT id, user_id, type, " + MINOR_UNITS.formatted("amount") + ", category_id, description, " +
+        EPOCH_DAY.formatted("transaction_date") + ", created_at, updated_at FROM transactions";
+
+    private static final String BUDGETS_DDL =
+        "CREATE TABLE budgets_typed (" +
+        "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+        "user_id INTEGER NOT NULL, " +
+        "category_id INTEGER NOT NULL, " +
+        "amount INTEGER NOT NULL, " +
+        "period TEXT DEFAULT 'MONTHLY', " +
+        "start_date INTEGER NOT NULL, " +
+        "end_date INTEGER, " +
+        "is_active INTEGER DEFAULT 1, " +
+        "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
+        "updated_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
+        "FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE, " +
+        "FOREIGN KEY (category_id) REFERENCES categories(id) ON DELETE CASCADE)";
+
+    private static final String BUDGETS_COPY =
+        "INSERT INTO budgets_typed " +
+        "(id, user_id, category_id, amount, period, start_date, end_date, is_active, created_at, updated_at) " +
+        "SELECT id, user_id, category_id, " + MINOR_UNITS.formatted("amount") + ", period, " +
+        EPOCH_DAY.formatted("start_date") + ", " + EPOCH_DAY.formatted("end_date") +
+        ", is_active, created_at, updated_at FROM budgets";
+
+    @Autowired
+    @Qualifier("writeDataSource")
+    private DataSource writeDataSource;
+
+    // EntityManagerFactory (dan validasi schema Hibernate) menunggu migrasi ini selesai
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor typedColumnsMigrationDependency() {
+        return new EntityManagerFactoryDependsOnPostProcessor("typedColumnsMigration");
+    }
+
+    @Override
+    public void afterPropertiesSet() throws SQLException {
+        try (Connection con = writeDataSource.getConnection()) {
+            boolean transactions = isText(con, "transactions", "transaction_date");
+            boolean budgets = isText(con, "budgets", "start_date");
+            if (!transactions && !budgets) {
+                return;
+            }
+            migrate(con, transactions, budgets);
+        }
+    }
+
+    private void migrate(Connection con, boolean transactions, boolean budgets) throws SQLException {
+        long start = System.nanoTime();
+        boolean foreignKeys;
+        try (Statement st = con.createStatement(); ResultSet rs = st.executeQuery("PRAGMA foreign_keys")) {
+            foreignKeys = rs.next() && rs.getInt(1) == 1;
+        }
+        // Tabel lama di-DROP saat rebuild; foreign key hanya bisa dimatikan di luar transaksi
+        execute(con, "PRAGMA foreign_keys = OFF");
+        con.setAutoCommit(false);
+        try {
+            if (transactions) {
+                int rows = rebuild(con, "transactions", TRANSACTIONS_DDL, TRANSACTIONS_COPY);
+                // Rollup lama berisi total REAL; dibuat dan diisi ulang oleh SchemaUpgrade
+                execute(con, "DROP TABLE IF EXISTS transaction_monthly_rollup");
+                log.info("Migrated {} transactions to epoch-day dates and minor-unit amounts", rows);
+            }
+            if (budgets) {
+                int rows = rebuild(con, "budgets", BUDGETS_DDL, BUDGETS_COPY);
+                log.info("Migrated {} budgets to epoch-day dates and minor-unit amounts", rows);
+            }
+            con.commit();
+        } catch (SQLException | RuntimeException e) {
+            con.rollback();
+            throw e;
+        } finally {
+            con.setAutoCommit(true);
+            if (foreignKeys) {
+                execute(con, "PRAGMA foreign_keys = ON");
+            }
+        }
+        log.info("Typed column migration finished in {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private int rebuild(Connection con, String table, String createTyped, String copy) throws SQLException {
+        List<String> dependents = new ArrayList<>();
+        try (PreparedStatement ps = con.prepareStatement(
+                "SELECT sql FROM sqlite_master WHERE type IN ('index', 'trigger') AND tbl_name = ? AND sql IS NOT NULL")) {
+            ps.setString(1, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    dependents.add(rs.getString(1));
+                }
+            }
+        }
+        Long sequence = null;
+        try (PreparedStatement ps = con.prepareStatement("SELECT seq FROM sqlite_sequence WHERE name = ?")) {
+            ps.setString(1, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    sequence = rs.getLong(1);
+                }
+            }
+        }
+
+        execute(con, createTyped);
+        int rows;
+        try (Statement st = con.createStatement()) {
+            rows = st.executeUpdate(copy);
+        }
+        execute(con, "DROP TABLE " + table);
+        execute(con, "ALTER TABLE " + table + "_typed RENAME TO " + table);
+        for (String sql : dependents) {
+            execute(con, sql);
+        }
+        // AUTOINCREMENT tidak boleh memakai ulang id dari baris yang dulu sudah dihapus
+        if (sequence != null) {
+            try (PreparedStatement ps = con.prepareStatement(
+                    "UPDATE sqlite_sequence SET seq = MAX(seq, ?) WHERE name = ?")) {
+                ps.setLong(1, sequence);
+                ps.setString(2, table);
+                ps.executeUpdate();
+            }
+        }
+        return rows;
+    }
+
+    private boolean isText(Connection con, String table, String column) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement("SELECT type FROM pragma_table_info(?) WHERE name = ?")) {
+            ps.setString(1, table);
+            ps.setString(2, column);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && "TEXT".equalsIgnoreCase(rs.getString(1));
+            }
+        }
+    }
+
+    private static void execute(Connection con, String sql) throws SQLException {
+        try (Statement st = con.createStatement()) {
+            st.execute(sql);
+        }
+    }
+}
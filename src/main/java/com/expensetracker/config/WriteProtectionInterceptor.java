@@ -0,0 +1,105 @@
+package com.expensetracker.config;
+
+import com.expensetracker.service.JwtService;
+import com.expensetracker.service.LoadShedder;
+import com.expensetracker.service.RateLimiter;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Menerapkan @RateLimited (429) lalu @LoadShedding (503) dari method controller, sebelum handler
+ * membaca body request. Request yang ditolak rate limit tidak dihitung sebagai beban.
+ * Dispatch ASYNC dari endpoint CompletableFuture tidak diperiksa ulang.
+ */
+@Component
+public class WriteProtectionInterceptor implements HandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = WriteProtectionInterceptor.class.getName() + ".start";
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private LoadShedder loadShedder;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (!(handler instanceof HandlerMethod method) || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        RateLimited rateLimited = method.getMethodAnnotation(RateLimited.class);
+        if (rateLimited != null && rateLimiter.isEnabled()) {
+            long wait = rateLimit(rateLimited, request);
+            if (wait > 0) {
+                reject(response, HttpStatus.TOO_MANY_REQUESTS, wait, "Too many requests");
+                return false;
+            }
+        }
+        LoadShedding loadShedding = method.getMethodAnnotation(LoadShedding.class);
+        if (loadShedding != null && loadShedder.isEnabled()) {
+            if (loadShedder.check(loadShedding.value(), loadShedding.maxQueueDepth(), loadShedding.maxP99Ms()) != null) {
+                reject(response, HttpStatus.SERVICE_UNAVAILABLE, TimeUnit.SECONDS.toNanos(1), "Server is busy");
+                return false;
+            }
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(START_ATTRIBUTE) instanceof Long start
+                && handler instanceof HandlerMethod method) {
+            LoadShedding loadShedding = method.getMethodAnnotation(LoadShedding.class);
+            if (loadShedding != null) {
+                loadShedder.record(loadShedding.value(), System.nanoTime() - start);
+            }
+        }
+    }
+
+    // Bucket user hanya untuk request dengan JWT; tanpa login semua request dibatasi per IP.
+    // Jika bucket IP menolak, token user dikembalikan supaya IP yang ramai tidak menghabiskan kuota user
+    private long rateLimit(RateLimited limits, HttpServletRequest request) {
+        Integer userId = null;
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (limits.userPerSecond() > 0 && authentication != null
+                && authentication.getPrincipal() instanceof JwtService.VerifiedToken token) {
+            userId = token.userId();
+            long wait = rateLimiter.acquire(limits.value(), "user", userId, limits.userPerSecond(), limits.userBurst());
+            if (wait > 0) {
+                return wait;
+            }
+        }
+        if (limits.ipPerSecond() > 0) {
+            long wait = rateLimiter.acquire(limits.value(), "ip", request.getRemoteAddr(), limits.ipPerSecond(), limits.ipBurst());
+            if (wait > 0) {
+                if (userId != null) {
+                    rateLimiter.refund(limits.value(), "user", userId, limits.userPerSecond());
+                }
+                return wait;
+            }
+        }
+        return 0;
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, long waitNanos, String message)
+            throws IOException {
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(status.value());
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write("Error: " + message + ", retry after " + retryAfterSeconds + "s");
+    }
+}
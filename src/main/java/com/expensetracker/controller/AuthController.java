@@ -0,0 +1,55 @@
+package com.expensetracker.controller;
+
+import com.expensetracker.dto.LoginRequest;
+import com.expensetracker.dto.LoginResponse;
+import com.expensetracker.service.AuthService;
+import com.expensetracker.service.JwtService;
+import com.expensetracker.service.PasswordHashingBusyException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+@RestController
+@RequestMapping("/auth")
+@CrossOrigin(origins = "*")
+public class AuthController {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthController.class);
+
+    @Autowired
+    private AuthService authService;
+
+    // Async: thread Tomcat dilepas selama BCrypt berjalan di executor hashing
+    @PostMapping("/login")
+    public CompletableFuture<ResponseEntity<LoginResponse>> login(@RequestBody LoginRequest request) {
+        return authService.login(request.getEmail(), request.getPassword())
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof PasswordHashingBusyException) {
+                        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+                    }
+                    log.debug("Login rejected: {}", cause.getMessage());
+                    return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+                });
+    }
+
+    // Mencabut token yang dipakai request ini (header Authorization)
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof JwtService.VerifiedToken token)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        authService.logout(token);
+        return ResponseEntity.noContent().build();
+    }
+}
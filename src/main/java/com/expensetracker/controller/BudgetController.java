@@ -0,0 +1,79 @@
+package com.expensetracker.controller;
+
+import com.expensetracker.dto.BudgetStatus;
+import com.expensetracker.entity.Budget;
+import com.expensetracker.service.BudgetService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/budgets")
+@CrossOrigin(origins = "*")
+public class BudgetController {
+
+    @Autowired
+    private BudgetService budgetService;
+
+    @GetMapping
+    public ResponseEntity<List<Budget>> getAllBudgets() {
+        return ResponseEntity.ok(budgetService.getAllBudgets());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Budget> getBudgetById(@PathVariable Integer id) {
+        return budgetService.getBudgetById(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<List<Budget>> getBudgetsByUser(@PathVariable Integer userId) {
+        return ResponseEntity.ok(budgetService.getBudgetsByUser(userId));
+    }
+
+    // Sisa budget periode berjalan dari counter in-memory
+    @GetMapping("/{id}/status")
+    public ResponseEntity<BudgetStatus> getStatus(@PathVariable Integer id) {
+        try {
+            return ResponseEntity.ok(budgetService.getStatus(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/user/{userId}/status")
+    public ResponseEntity<List<BudgetStatus>> getStatusesByUser(@PathVariable Integer userId) {
+        return ResponseEntity.ok(budgetService.getStatusesByUser(userId));
+    }
+
+    @PostMapping
+    public ResponseEntity<?> createBudget(@RequestBody Budget budget) {
+        try {
+            return ResponseEntity.ok(budgetService.createBudget(budget));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<Budget> updateBudget(@PathVariable Integer id, @RequestBody Budget budgetDetails) {
+        try {
+            return ResponseEntity.ok(budgetService.updateBudget(id, budgetDetails));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteBudget(@PathVariable Integer id) {
+        try {
+            budgetService.deleteBudget(id);
+            return ResponseEntity.ok().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package com.expensetracker.controller;
 
+import com.expensetracker.dto.CategoryView;
 import com.expensetracker.entity.Category;
 import com.expensetracker.service.CategoryService;
+import com.expensetracker.service.ChangeVersionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -16,10 +20,18 @@ public class CategoryController {
     @Autowired
     private CategoryService categoryService;
 
+    @Autowired
+    private ChangeVersionService changeVersionService;
+
+    // Conditional GET: kalau If-None-Match masih cocok, checkNotModified sudah mengisi 304 + ETag
+    // dan handler mengembalikan null tanpa menjalankan query
     @GetMapping
-    public ResponseEntity<List<Category>> getAllCategories() {
-        List<Category> categories = categoryService.getAllCategories();
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<List<CategoryView>> getAllCategories(WebRequest request) {
+        if (request.checkNotModified(changeVersionService.categoriesEtag())) {
+            return null;
+        }
+        List<CategoryView> categories = categoryService.getAllCategories();
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(categories);
     }
 
     @GetMapping("/{id}")
@@ -30,15 +42,21 @@ public class CategoryController {
     }
 
     @GetMapping("/type/{type}")
-    public ResponseEntity<List<Category>> getCategoriesByType(@PathVariable String type) {
-        List<Category> categories = categoryService.getCategoriesByType(type);
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<List<CategoryView>> getCategoriesByType(@PathVariable String type, WebRequest request) {
+        if (request.checkNotModified(changeVersionService.categoriesEtag())) {
+            return null;
+        }
+        List<CategoryView> categories = categoryService.getCategoriesByType(type);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(categories);
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Category>> getCategoriesByUser(@PathVariable Integer userId) {
-        List<Category> categories = categoryService.getCategoriesByUser(userId);
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<List<CategoryView>> getCategoriesByUser(@PathVariable Integer userId, WebRequest request) {
+        if (request.checkNotModified(changeVersionService.categoriesEtag())) {
+            return null;
+        }
+        List<CategoryView> categories = categoryService.getCategoriesByUser(userId);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(categories);
     }
 
     @PostMapping
@@ -1,5 +1,7 @@
 package com.expensetracker.controller;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -14,6 +16,8 @@ import java.util.Map;
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     @ResponseBody
     public ResponseEntity<Map<String, String>> handleValidationExceptions(MethodArgumentNotValidException ex) {
@@ -21,7 +25,7 @@ public class GlobalExceptionHandler {
         ex.getBindingResult().getFieldErrors().forEach(error -> 
             errors.put(error.getField(), error.getDefaultMessage()));
         
-        System.err.println("Validation error: " + errors);
+        log.debug("Validation error: {}", errors);
         return ResponseEntity.badRequest().body(errors);
     }
 
@@ -31,7 +35,7 @@ public class GlobalExceptionHandler {
         Map<String, String> error = new HashMap<>();
         error.put("error", "Invalid JSON format: " + ex.getMessage());
         
-        System.err.println("JSON parsing error: " + ex.getMessage());
+        log.debug("JSON parsing error: {}", ex.getMessage());
         return ResponseEntity.badRequest().body(error);
     }
 
@@ -41,8 +45,7 @@ public class GlobalExceptionHandler {
         Map<String, String> error = new HashMap<>();
         error.put("error", "Unexpected error: " + ex.getMessage());
         
-        System.err.println("Generic error: " + ex.getMessage());
-        ex.printStackTrace();
+        log.error("Unhandled exception", ex);
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
     }
 }
@@ -0,0 +1,43 @@
+package com.expensetracker.controller;
+
+import com.expensetracker.service.SettingService;
+import com.expensetracker.service.UserNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/settings")
+@CrossOrigin(origins = "*")
+public class SettingController {
+
+    @Autowired
+    private SettingService settingService;
+
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<Map<String, String>> getSettings(@PathVariable Integer userId) {
+        return ResponseEntity.ok(settingService.getSettings(userId));
+    }
+
+    @GetMapping("/user/{userId}/{key}")
+    public ResponseEntity<String> getSetting(@PathVariable Integer userId, @PathVariable String key) {
+        return settingService.getSetting(userId, key)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Hanya key yang dikirim yang diubah; ditulis ke database secara batch di belakang
+    @PutMapping("/user/{userId}")
+    public ResponseEntity<?> updateSettings(@PathVariable Integer userId, @RequestBody Map<String, String> values) {
+        try {
+            return ResponseEntity.ok(settingService.updateSettings(userId, values));
+        } catch (UserNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Error: " + e.getMessage());
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+}
@@ -1,10 +1,29 @@
 package com.expensetracker.controller;
 
+import com.expensetracker.config.LoadShedding;
+import com.expensetracker.config.RateLimited;
+import com.expensetracker.dto.BatchInsertResult;
+import com.expensetracker.dto.CursorPage;
+import com.expensetracker.dto.RollupVerification;
+import com.expensetracker.dto.TransactionSummary;
+import com.expensetracker.dto.TransactionView;
 import com.expensetracker.entity.Transaction;
+import com.expensetracker.service.ChangeVersionService;
+import com.expensetracker.service.GroupCommitWriter;
 import com.expensetracker.service.TransactionService;
+import com.expensetracker.service.WriteQueueFullException;
+import com.expensetracker.service.WriteTimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -13,15 +32,115 @@ import java.util.List;
 @CrossOrigin(origins = "*")
 public class TransactionController {
 
+    private static final Logger log = LoggerFactory.getLogger(TransactionController.class);
+
     @Autowired
     private TransactionService transactionService;
 
+    @Autowired
+    private GroupCommitWriter groupCommitWriter;
+
+    @Autowired
+    private ChangeVersionService changeVersionService;
+
     @GetMapping
-    public ResponseEntity<List<Transaction>> getAllTransactions() {
-        List<Transaction> transactions = transactionService.getAllTransactions();
+    public ResponseEntity<List<TransactionView>> getAllTransactions() {
+        List<TransactionView> transactions = transactionService.getAllTransactions();
         return ResponseEntity.ok(transactions);
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<TransactionView>> getTransactionsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        if (request.checkNotModified(changeVersionService.transactionsEtag())) {
+            return null;
+        }
+        try {
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache())
+                    .body(transactionService.getTransactionsPage(cursor, limit));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Pencarian description (full-text, prefix, urut relevansi)
+    @GetMapping("/search")
+    public ResponseEntity<List<TransactionView>> searchTransactions(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) Integer userId,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        String etag = userId != null ? changeVersionService.userTransactionsEtag(userId)
+                                     : changeVersionService.transactionsEtag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        try {
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache())
+                    .body(transactionService.searchTransactions(query, userId, limit));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<TransactionSummary> getSummary(
+            @RequestParam(required = false) Integer userId,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(defaultValue = "month") String granularity,
+            WebRequest request) {
+        String etag = userId != null ? changeVersionService.userTransactionsEtag(userId)
+                                     : changeVersionService.transactionsEtag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        try {
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache())
+                    .body(transactionService.getSummary(userId, startDate, endDate, granularity));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Perbaikan drift rollup bulanan
+    @PostMapping("/rollup/rebuild")
+    public ResponseEntity<Integer> rebuildRollup() {
+        return ResponseEntity.ok(transactionService.rebuildRollup());
+    }
+
+    @GetMapping("/rollup/verify")
+    public ResponseEntity<RollupVerification> verifyRollup() {
+        return ResponseEntity.ok(transactionService.verifyRollup());
+    }
+
+    // Export streaming (NDJSON atau CSV), opsional dibatasi satu user
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) Integer userId) {
+        StreamingResponseBody body;
+        MediaType mediaType;
+        String filename;
+        if ("ndjson".equalsIgnoreCase(format)) {
+            body = out -> transactionService.exportTransactionsAsNdjson(userId, out);
+            mediaType = MediaType.parseMediaType("application/x-ndjson");
+            filename = "transactions.ndjson";
+        } else if ("csv".equalsIgnoreCase(format)) {
+            body = out -> transactionService.exportTransactionsAsCsv(userId, out);
+            mediaType = MediaType.parseMediaType("text/csv; charset=UTF-8");
+            filename = "transactions.csv";
+        } else {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Transaction> getTransactionById(@PathVariable Integer id) {
         Transaction transaction = transactionService.getTransactionById(id);
@@ -32,78 +151,122 @@ public class TransactionController {
         }
     }
 
+    // Conditional GET per user: 304 + ETag diisi oleh checkNotModified, query tidak dijalankan
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Transaction>> getTransactionsByUser(@PathVariable Integer userId) {
-        List<Transaction> transactions = transactionService.getTransactionsByUser(userId);
-        return ResponseEntity.ok(transactions);
+    public ResponseEntity<List<TransactionView>> getTransactionsByUser(@PathVariable Integer userId, WebRequest request) {
+        if (request.checkNotModified(changeVersionService.userTransactionsEtag(userId))) {
+            return null;
+        }
+        List<TransactionView> transactions = transactionService.getTransactionsByUser(userId);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(transactions);
+    }
+
+    @GetMapping("/user/{userId}/page")
+    public ResponseEntity<CursorPage<TransactionView>> getTransactionsPageByUser(
+            @PathVariable Integer userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        if (request.checkNotModified(changeVersionService.userTransactionsEtag(userId))) {
+            return null;
+        }
+        try {
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache())
+                    .body(transactionService.getTransactionsPageByUser(userId, cursor, limit));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/type/{type}")
-    public ResponseEntity<List<Transaction>> getTransactionsByType(@PathVariable String type) {
-        List<Transaction> transactions = transactionService.getTransactionsByType(type);
+    public ResponseEntity<List<TransactionView>> getTransactionsByType(@PathVariable String type) {
+        List<TransactionView> transactions = transactionService.getTransactionsByType(type);
         return ResponseEntity.ok(transactions);
     }
 
     @GetMapping("/category/{categoryId}")
-    public ResponseEntity<List<Transaction>> getTransactionsByCategory(@PathVariable Integer categoryId) {
-        List<Transaction> transactions = transactionService.getTransactionsByCategory(categoryId);
+    public ResponseEntity<List<TransactionView>> getTransactionsByCategory(@PathVariable Integer categoryId) {
+        List<TransactionView> transactions = transactionService.getTransactionsByCategory(categoryId);
         return ResponseEntity.ok(transactions);
     }
 
+    @RateLimited(value = "transactions.create", userPerSecond = 50, userBurst = 100, ipPerSecond = 200, ipBurst = 400)
+    @LoadShedding(value = "transactions.create", maxP99Ms = 500)
     @PostMapping
     public ResponseEntity<?> createTransaction(@RequestBody Transaction transaction) {
         try {
-            System.out.println("=== CREATE TRANSACTION REQUEST ===");
-            System.out.println("Received transaction: " + transaction);
-            System.out.println("Transaction type: " + (transaction.getType() != null ? transaction.getType() : "NULL"));
-            System.out.println("Transaction amount: " + (transaction.getAmount() != null ? transaction.getAmount() : "NULL"));
-            System.out.println("Transaction categoryId: " + (transaction.getCategoryId() != null ? transaction.getCategoryId() : "NULL"));
-            System.out.println("Transaction userId: " + (transaction.getUserId() != null ? transaction.getUserId() : "NULL"));
-            System.out.println("Transaction description: " + (transaction.getDescription() != null ? transaction.getDescription() : "NULL"));
-            System.out.println("Transaction date: " + (transaction.getTransactionDate() != null ? transaction.getTransactionDate() : "NULL"));
-            System.out.println("=================================");
+            log.debug("Create transaction request: {}", transaction);
             
             // Validate required fields
-            if (transaction.getType() == null || transaction.getType().trim().isEmpty()) {
-                System.err.println("ERROR: Transaction type is required");
-                return ResponseEntity.badRequest().body("Transaction type is required");
-            }
-            if (transaction.getAmount() == null || transaction.getAmount() <= 0) {
-                System.err.println("ERROR: Transaction amount must be positive");
-                return ResponseEntity.badRequest().body("Transaction amount must be positive");
-            }
-            if (transaction.getCategoryId() == null) {
-                System.err.println("ERROR: Category ID is required");
-                return ResponseEntity.badRequest().body("Category ID is required");
-            }
-            if (transaction.getUserId() == null) {
-                System.err.println("ERROR: User ID is required");
-                return ResponseEntity.badRequest().body("User ID is required");
-            }
-            if (transaction.getDescription() == null || transaction.getDescription().trim().isEmpty()) {
-                System.err.println("ERROR: Description is required");
-                return ResponseEntity.badRequest().body("Description is required");
-            }
-            if (transaction.getTransactionDate() == null || transaction.getTransactionDate().trim().isEmpty()) {
-                System.err.println("ERROR: Transaction date is required");
-                return ResponseEntity.badRequest().body("Transaction date is required");
+            String invalid = validateForCreate(transaction);
+            if (invalid != null) {
+                log.atDebug().addKeyValue("userId", transaction.getUserId()).log("Create transaction rejected: {}", invalid);
+                return ResponseEntity.badRequest().body(invalid);
             }
             
-            System.out.println("All validations passed, calling service...");
-            Transaction createdTransaction = transactionService.createTransaction(transaction);
-            System.out.println("Transaction created successfully: " + createdTransaction.getId());
+            // Mode group commit: ditulis bersama request lain dalam satu transaksi SQLite
+            Transaction createdTransaction = groupCommitWriter.isEnabled()
+                    ? groupCommitWriter.submit(transaction)
+                    : transactionService.createTransaction(transaction);
+            log.atDebug()
+                .addKeyValue("transactionId", createdTransaction.getId())
+                .addKeyValue("userId", createdTransaction.getUserId())
+                .log("Transaction created");
             return ResponseEntity.ok(createdTransaction);
+        } catch (WriteQueueFullException e) {
+            log.warn("Write queue full in createTransaction: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Error: " + e.getMessage());
+        } catch (WriteTimeoutException e) {
+            // Tidak pernah 400: client yang mengulang setelah 400 bisa membuat transaksi ganda
+            log.warn("Group commit timeout in createTransaction: {}", e.getMessage());
+            HttpStatus status = e.isOutcomeUnknown() ? HttpStatus.GATEWAY_TIMEOUT : HttpStatus.SERVICE_UNAVAILABLE;
+            return ResponseEntity.status(status).body("Error: " + e.getMessage());
         } catch (RuntimeException e) {
-            System.err.println("RuntimeException in createTransaction: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("createTransaction failed: {}", e.getMessage());
             return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         } catch (Exception e) {
-            System.err.println("Unexpected error in createTransaction: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error in createTransaction", e);
             return ResponseEntity.internalServerError().body("Unexpected error: " + e.getMessage());
         }
     }
 
+    private String validateForCreate(Transaction transaction) {
+        if (transaction.getType() == null || transaction.getType().trim().isEmpty()) {
+            return "Transaction type is required";
+        }
+        if (transaction.getAmount() == null || transaction.getAmount() <= 0) {
+            return "Transaction amount must be positive";
+        }
+        if (transaction.getCategoryId() == null) {
+            return "Category ID is required";
+        }
+        if (transaction.getUserId() == null) {
+            return "User ID is required";
+        }
+        if (transaction.getDescription() == null || transaction.getDescription().trim().isEmpty()) {
+            return "Description is required";
+        }
+        if (transaction.getTransactionDate() == null) {
+            return "Transaction date is required";
+        }
+        return null;
+    }
+
+    // Import massal: satu transaksi DB untuk seluruh array, error dilaporkan per baris
+    @RateLimited(value = "transactions.batch", userPerSecond = 2, userBurst = 5, ipPerSecond = 5, ipBurst = 10)
+    @LoadShedding(value = "transactions.batch", maxQueueDepth = 20, maxP99Ms = 5000)
+    @PostMapping("/batch")
+    public ResponseEntity<?> createTransactionsBatch(@RequestBody List<Transaction> transactions) {
+        try {
+            BatchInsertResult result = transactionService.createTransactionsBatch(transactions);
+            return ResponseEntity.ok(result);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    @RateLimited(value = "transactions.update", userPerSecond = 50, userBurst = 100, ipPerSecond = 200, ipBurst = 400)
+    @LoadShedding(value = "transactions.update", maxP99Ms = 500)
     @PutMapping("/{id}")
     public ResponseEntity<Transaction> updateTransaction(@PathVariable Integer id, @RequestBody Transaction transactionDetails) {
         try {
@@ -114,6 +277,24 @@ public class TransactionController {
         }
     }
 
+    // Bulk delete per user dan/atau kategori, opsional dibatasi rentang tanggal; mengembalikan jumlah baris terhapus
+    @RateLimited(value = "transactions.bulk-delete", userPerSecond = 0.2, userBurst = 2, ipPerSecond = 0.5, ipBurst = 2)
+    @LoadShedding(value = "transactions.bulk-delete", maxQueueDepth = 20, maxP99Ms = 5000)
+    @DeleteMapping
+    public ResponseEntity<?> deleteTransactions(
+            @RequestParam(required = false) Integer userId,
+            @RequestParam(required = false) Integer categoryId,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate) {
+        try {
+            return ResponseEntity.ok(transactionService.deleteTransactions(userId, categoryId, startDate, endDate));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    @RateLimited(value = "transactions.delete", userPerSecond = 50, userBurst = 100, ipPerSecond = 200, ipBurst = 400)
+    @LoadShedding(value = "transactions.delete", maxP99Ms = 500)
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteTransaction(@PathVariable Integer id) {
         try {
@@ -1,25 +1,49 @@
 package com.expensetracker.controller;
 
+import com.expensetracker.config.LoadShedding;
+import com.expensetracker.config.RateLimited;
+import com.expensetracker.dto.BatchInsertResult;
+import com.expensetracker.dto.CursorPage;
+import com.expensetracker.dto.UserView;
 import com.expensetracker.entity.User;
+import com.expensetracker.service.ChangeVersionService;
+import com.expensetracker.service.PasswordHashingBusyException;
 import com.expensetracker.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/users")
 @CrossOrigin(origins = "*")
 public class UserController {
 
+    // Import besar bisa melewati timeout async default (30 detik); hashing dibatasi jumlah core
+    private static final long IMPORT_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(10);
+
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private ChangeVersionService changeVersionService;
+
+    // Conditional GET: 304 + ETag diisi oleh checkNotModified, query tidak dijalankan
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userService.getAllUsers();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<List<UserView>> getAllUsers(WebRequest request) {
+        if (request.checkNotModified(changeVersionService.usersEtag())) {
+            return null;
+        }
+        List<UserView> users = userService.getAllUsers();
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(users);
     }
 
     @GetMapping("/{id}")
@@ -29,24 +53,42 @@ public class UserController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // Async: thread Tomcat dilepas selama password di-hash
+    @RateLimited(value = "users.create", userPerSecond = 5, userBurst = 20, ipPerSecond = 10, ipBurst = 20)
     @PostMapping
-    public ResponseEntity<User> createUser(@RequestBody User user) {
-        try {
-            User createdUser = userService.createUser(user);
-            return ResponseEntity.ok(createdUser);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().build();
-        }
+    public CompletableFuture<ResponseEntity<User>> createUser(@RequestBody User user) {
+        return userService.createUser(user)
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(e -> isHashingBusy(e)
+                        ? ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build()
+                        : ResponseEntity.badRequest().build());
+    }
+
+    // Body: array user seperti POST /users (passwordHash berisi password asli), error dilaporkan per baris
+    @RateLimited(value = "users.import", userPerSecond = 0.2, userBurst = 2, ipPerSecond = 0.5, ipBurst = 2)
+    @LoadShedding(value = "users.import", maxQueueDepth = 20, maxP99Ms = 60000)
+    @PostMapping("/import")
+    public DeferredResult<ResponseEntity<?>> importUsers(@RequestBody List<User> users) {
+        DeferredResult<ResponseEntity<?>> response = new DeferredResult<>(IMPORT_TIMEOUT_MS);
+        userService.importUsers(users).whenComplete((result, e) -> {
+            if (e == null) {
+                response.setResult(ResponseEntity.<BatchInsertResult>ok(result));
+            } else if (isHashingBusy(e)) {
+                response.setResult(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Error: " + cause(e).getMessage()));
+            } else {
+                response.setResult(ResponseEntity.badRequest().body("Error: " + cause(e).getMessage()));
+            }
+        });
+        return response;
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<User> updateUser(@PathVariable Integer id, @RequestBody User userDetails) {
-        try {
-            User updatedUser = userService.updateUser(id, userDetails);
-            return ResponseEntity.ok(updatedUser);
-        } catch (RuntimeException e) {
-            return ResponseEntity.notFound().build();
-        }
+    public CompletableFuture<ResponseEntity<User>> updateUser(@PathVariable Integer id, @RequestBody User userDetails) {
+        return userService.updateUser(id, userDetails)
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(e -> isHashingBusy(e)
+                        ? ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build()
+                        : ResponseEntity.notFound().build());
     }
 
     @DeleteMapping("/{id}")
@@ -60,9 +102,9 @@ public class UserController {
     }
 
     @GetMapping("/role/{role}")
-    public ResponseEntity<List<User>> getUsersByRole(@PathVariable String role) {
+    public ResponseEntity<List<UserView>> getUsersByRole(@PathVariable String role) {
         try {
-            List<User> users = userService.getUsersByRole(role);
+            List<UserView> users = userService.getUsersByRole(role);
             return ResponseEntity.ok(users);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
@@ -70,21 +112,42 @@ public class UserController {
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<User>> getUsersByStatus(@PathVariable String status) {
+    public ResponseEntity<List<UserView>> getUsersByStatus(@PathVariable String status) {
         try {
-            List<User> users = userService.getUsersByStatus(status);
+            List<UserView> users = userService.getUsersByStatus(status);
             return ResponseEntity.ok(users);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
+    // Pencarian name/email dengan limit dan cursor; parameter lama name/email tetap diterima sebagai q
     @GetMapping("/search")
-    public ResponseEntity<List<User>> searchUsers(
+    public ResponseEntity<CursorPage<UserView>> searchUsers(
+            @RequestParam(required = false) String q,
             @RequestParam(required = false) String name,
-            @RequestParam(required = false) String email) {
-        List<User> users = userService.searchUsers(name, email);
-        return ResponseEntity.ok(users);
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        if (request.checkNotModified(changeVersionService.usersEtag())) {
+            return null;
+        }
+        String query = q != null ? q : name != null ? name : email;
+        try {
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache())
+                    .body(userService.searchUsers(query, cursor, limit));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    private static Throwable cause(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
+    private static boolean isHashingBusy(Throwable e) {
+        return cause(e) instanceof PasswordHashingBusyException;
     }
 
     @GetMapping("/count/role/{role}")
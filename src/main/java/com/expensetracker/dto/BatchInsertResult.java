@@ -0,0 +1,43 @@
+package com.expensetracker.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hasil insert batch. ids sejajar dengan urutan request; baris yang ditolak bernilai null
+ * dan alasannya ada di errors.
+ */
+public class BatchInsertResult {
+
+    private List<Integer> ids = new ArrayList<>();
+    private List<BatchRowError> errors = new ArrayList<>();
+    private int insertedCount;
+
+    // Constructors
+    public BatchInsertResult() {}
+
+    // Getters and Setters
+    public List<Integer> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Integer> ids) {
+        this.ids = ids;
+    }
+
+    public List<BatchRowError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<BatchRowError> errors) {
+        this.errors = errors;
+    }
+
+    public int getInsertedCount() {
+        return insertedCount;
+    }
+
+    public void setInsertedCount(int insertedCount) {
+        this.insertedCount = insertedCount;
+    }
+}
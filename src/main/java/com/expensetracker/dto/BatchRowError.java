@@ -0,0 +1,35 @@
+package com.expensetracker.dto;
+
+/**
+ * Error validasi untuk satu baris pada request batch; index mengacu ke posisi di array request.
+ */
+public class BatchRowError {
+
+    private int index;
+    private String message;
+
+    // Constructors
+    public BatchRowError() {}
+
+    public BatchRowError(int index, String message) {
+        this.index = index;
+        this.message = message;
+    }
+
+    // Getters and Setters
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
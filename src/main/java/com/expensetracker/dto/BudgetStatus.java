@@ -0,0 +1,105 @@
+package com.expensetracker.dto;
+
+/**
+ * Sisa budget untuk periode berjalan.
+ * spent hanya menghitung transaksi EXPENSE pada kategori budget di dalam periode.
+ */
+public class BudgetStatus {
+
+    private Integer budgetId;
+    private Integer userId;
+    private Integer categoryId;
+    private String period;
+    private String periodStart;
+    private String periodEnd;
+    private double limit;
+    private double spent;
+
+    // Constructors
+    public BudgetStatus() {}
+
+    public BudgetStatus(Integer budgetId, Integer userId, Integer categoryId, String period,
+                        String periodStart, String periodEnd, double limit, double spent) {
+        this.budgetId = budgetId;
+        this.userId = userId;
+        this.categoryId = categoryId;
+        this.period = period;
+        this.periodStart = periodStart;
+        this.periodEnd = periodEnd;
+        this.limit = limit;
+        this.spent = spent;
+    }
+
+    public double getRemaining() {
+        return limit - spent;
+    }
+
+    public boolean isExceeded() {
+        return spent > limit;
+    }
+
+    // Getters and Setters
+    public Integer getBudgetId() {
+        return budgetId;
+    }
+
+    public void setBudgetId(Integer budgetId) {
+        this.budgetId = budgetId;
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Integer userId) {
+        this.userId = userId;
+    }
+
+    public Integer getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Integer categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public String getPeriod() {
+        return period;
+    }
+
+    public void setPeriod(String period) {
+        this.period = period;
+    }
+
+    public String getPeriodStart() {
+        return periodStart;
+    }
+
+    public void setPeriodStart(String periodStart) {
+        this.periodStart = periodStart;
+    }
+
+    public String getPeriodEnd() {
+        return periodEnd;
+    }
+
+    public void setPeriodEnd(String periodEnd) {
+        this.periodEnd = periodEnd;
+    }
+
+    public double getLimit() {
+        return limit;
+    }
+
+    public void setLimit(double limit) {
+        this.limit = limit;
+    }
+
+    public double getSpent() {
+        return spent;
+    }
+
+    public void setSpent(double spent) {
+        this.spent = spent;
+    }
+}
@@ -0,0 +1,55 @@
+package com.expensetracker.dto;
+
+/**
+ * Total transaksi per kategori dan jenis (INCOME/EXPENSE).
+ */
+public class CategoryTotal {
+
+    private Integer categoryId;
+    private String type;
+    private Double total;
+    private Long count;
+
+    // Constructors
+    public CategoryTotal() {}
+
+    public CategoryTotal(Integer categoryId, String type, Double total, Long count) {
+        this.categoryId = categoryId;
+        this.type = type;
+        this.total = total;
+        this.count = count;
+    }
+
+    // Getters and Setters
+    public Integer getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Integer categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Double getTotal() {
+        return total;
+    }
+
+    public void setTotal(Double total) {
+        this.total = total;
+    }
+
+    public Long getCount() {
+        return count;
+    }
+
+    public void setCount(Long count) {
+        this.count = count;
+    }
+}
@@ -0,0 +1,16 @@
+package com.expensetracker.dto;
+
+/**
+ * Kategori untuk endpoint list, dibuat langsung oleh query tanpa entity. Immutable, sehingga aman
+ * dibagikan dari cache kategori ke semua request. JSON-nya sama dengan entity Category.
+ */
+public record CategoryView(
+        Integer id,
+        String name,
+        String type,
+        String color,
+        String icon,
+        Integer isDefault,
+        Integer userId,
+        String createdAt,
+        String updatedAt) {}
@@ -0,0 +1,65 @@
+package com.expensetracker.dto;
+
+/**
+ * JWT hasil login; dikirim kembali sebagai header "Authorization: Bearer {token}".
+ * expiresIn dalam detik.
+ */
+public class LoginResponse {
+
+    private String token;
+    private String tokenType = "Bearer";
+    private long expiresIn;
+    private Integer userId;
+    private String role;
+
+    // Constructors
+    public LoginResponse() {}
+
+    public LoginResponse(String token, long expiresIn, Integer userId, String role) {
+        this.token = token;
+        this.expiresIn = expiresIn;
+        this.userId = userId;
+        this.role = role;
+    }
+
+    // Getters and Setters
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public String getTokenType() {
+        return tokenType;
+    }
+
+    public void setTokenType(String tokenType) {
+        this.tokenType = tokenType;
+    }
+
+    public long getExpiresIn() {
+        return expiresIn;
+    }
+
+    public void setExpiresIn(long expiresIn) {
+        this.expiresIn = expiresIn;
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Integer userId) {
+        this.userId = userId;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public void setRole(String role) {
+        this.role = role;
+    }
+}
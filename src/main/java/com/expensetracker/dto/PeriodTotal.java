@@ -0,0 +1,45 @@
+package com.expensetracker.dto;
+
+/**
+ * Total pemasukan dan pengeluaran untuk satu bucket waktu (YYYY-MM atau YYYY-MM-DD).
+ */
+public class PeriodTotal {
+
+    private String period;
+    private Double income;
+    private Double expense;
+
+    // Constructors
+    public PeriodTotal() {}
+
+    public PeriodTotal(String period) {
+        this.period = period;
+        this.income = 0.0;
+        this.expense = 0.0;
+    }
+
+    // Getters and Setters
+    public String getPeriod() {
+        return period;
+    }
+
+    public void setPeriod(String period) {
+        this.period = period;
+    }
+
+    public Double getIncome() {
+        return income;
+    }
+
+    public void setIncome(Double income) {
+        this.income = income;
+    }
+
+    public Double getExpense() {
+        return expense;
+    }
+
+    public void setExpense(Double expense) {
+        this.expense = expense;
+    }
+}
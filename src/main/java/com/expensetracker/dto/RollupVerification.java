@@ -0,0 +1,47 @@
+package com.expensetracker.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hasil perbandingan tabel rollup bulanan dengan agregat yang dihitung ulang dari transactions.
+ * Setiap entri mismatches berformat "userId/categoryId/type/YYYY-MM: expected=..., actual=...".
+ */
+public class RollupVerification {
+
+    private long expectedGroups;
+    private long rollupGroups;
+    private List<String> mismatches = new ArrayList<>();
+
+    // Constructors
+    public RollupVerification() {}
+
+    public boolean isConsistent() {
+        return mismatches.isEmpty();
+    }
+
+    // Getters and Setters
+    public long getExpectedGroups() {
+        return expectedGroups;
+    }
+
+    public void setExpectedGroups(long expectedGroups) {
+        this.expectedGroups = expectedGroups;
+    }
+
+    public long getRollupGroups() {
+        return rollupGroups;
+    }
+
+    public void setRollupGroups(long rollupGroups) {
+        this.rollupGroups = rollupGroups;
+    }
+
+    public List<String> getMismatches() {
+        return mismatches;
+    }
+
+    public void setMismatches(List<String> mismatches) {
+        this.mismatches = mismatches;
+    }
+}
@@ -0,0 +1,107 @@
+package com.expensetracker.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ringkasan dashboard yang dihitung di database (GROUP BY), bukan di browser.
+ */
+public class TransactionSummary {
+
+    private Integer userId;
+    private String startDate;
+    private String endDate;
+    private String granularity;
+    private Double totalIncome = 0.0;
+    private Double totalExpense = 0.0;
+    private Long transactionCount = 0L;
+    private List<CategoryTotal> byCategory = new ArrayList<>();
+    private List<PeriodTotal> byPeriod = new ArrayList<>();
+
+    // Constructors
+    public TransactionSummary() {}
+
+    public TransactionSummary(Integer userId, String startDate, String endDate, String granularity) {
+        this.userId = userId;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.granularity = granularity;
+    }
+
+    public Double getBalance() {
+        return totalIncome - totalExpense;
+    }
+
+    // Getters and Setters
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Integer userId) {
+        this.userId = userId;
+    }
+
+    public String getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(String startDate) {
+        this.startDate = startDate;
+    }
+
+    public String getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(String endDate) {
+        this.endDate = endDate;
+    }
+
+    public String getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(String granularity) {
+        this.granularity = granularity;
+    }
+
+    public Double getTotalIncome() {
+        return totalIncome;
+    }
+
+    public void setTotalIncome(Double totalIncome) {
+        this.totalIncome = totalIncome;
+    }
+
+    public Double getTotalExpense() {
+        return totalExpense;
+    }
+
+    public void setTotalExpense(Double totalExpense) {
+        this.totalExpense = totalExpense;
+    }
+
+    public Long getTransactionCount() {
+        return transactionCount;
+    }
+
+    public void setTransactionCount(Long transactionCount) {
+        this.transactionCount = transactionCount;
+    }
+
+    public List<CategoryTotal> getByCategory() {
+        return byCategory;
+    }
+
+    public void setByCategory(List<CategoryTotal> byCategory) {
+        this.byCategory = byCategory;
+    }
+
+    public List<PeriodTotal> getByPeriod() {
+        return byPeriod;
+    }
+
+    public void setByPeriod(List<PeriodTotal> byPeriod) {
+        this.byPeriod = byPeriod;
+    }
+}
@@ -0,0 +1,23 @@
+package com.expensetracker.dto;
+
+import com.expensetracker.entity.Money;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.time.LocalDate;
+
+/**
+ * Transaksi untuk endpoint list, dibuat langsung oleh query (constructor expression) tanpa entity:
+ * tidak masuk persistence context dan tidak punya snapshot dirty checking.
+ * JSON-nya sama dengan entity Transaction; createdAt/updatedAt diteruskan sebagai teks dari database
+ * tanpa parse dan format ulang.
+ */
+public record TransactionView(
+        Integer id,
+        Integer userId,
+        String type,
+        @JsonSerialize(using = Money.Serializer.class) Long amount,
+        Integer categoryId,
+        String description,
+        LocalDate transactionDate,
+        String createdAt,
+        String updatedAt) {}
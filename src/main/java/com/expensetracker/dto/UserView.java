@@ -0,0 +1,14 @@
+package com.expensetracker.dto;
+
+/**
+ * User untuk endpoint list dan pencarian, dibuat langsung oleh query tanpa entity.
+ * password_hash tidak ikut dibaca dari database.
+ */
+public record UserView(
+        Integer id,
+        String name,
+        String email,
+        String role,
+        String status,
+        String createdAt,
+        String updatedAt) {}
@@ -1,7 +1,11 @@
 package com.expensetracker.entity;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.persistence.*;
 
+import java.time.LocalDate;
+
 @Entity
 @Table(name = "budgets")
 public class Budget {
@@ -16,17 +20,22 @@ public class Budget {
     @Column(name = "category_id")
     private Integer categoryId;
 
+    // Satuan terkecil (1/100); di JSON tetap Rupiah
     @Column(name = "amount")
-    private Double amount;
+    @JsonSerialize(using = Money.Serializer.class)
+    @JsonDeserialize(using = Money.Deserializer.class)
+    private Long amount;
 
     @Column(name = "period")
     private String period;
 
     @Column(name = "start_date")
-    private String startDate;
+    @Convert(converter = EpochDayConverter.class)
+    private LocalDate startDate;
 
     @Column(name = "end_date")
-    private String endDate;
+    @Convert(converter = EpochDayConverter.class)
+    private LocalDate endDate;
 
     @Column(name = "is_active")
     private Integer isActive;
@@ -40,7 +49,7 @@ public class Budget {
     // Constructors
     public Budget() {}
 
-    public Budget(Integer userId, Integer categoryId, Double amount, String period, String startDate) {
+    public Budget(Integer userId, Integer categoryId, Long amount, String period, LocalDate startDate) {
         this.userId = userId;
         this.categoryId = categoryId;
         this.amount = amount;
@@ -73,11 +82,11 @@ public class Budget {
         this.categoryId = categoryId;
     }
 
-    public Double getAmount() {
+    public Long getAmount() {
         return amount;
     }
 
-    public void setAmount(Double amount) {
+    public void setAmount(Long amount) {
         this.amount = amount;
     }
 
@@ -89,19 +98,19 @@ public class Budget {
         this.period = period;
     }
 
-    public String getStartDate() {
+    public LocalDate getStartDate() {
         return startDate;
     }
 
-    public void setStartDate(String startDate) {
+    public void setStartDate(LocalDate startDate) {
         this.startDate = startDate;
     }
 
-    public String getEndDate() {
+    public LocalDate getEndDate() {
         return endDate;
     }
 
-    public void setEndDate(String endDate) {
+    public void setEndDate(LocalDate endDate) {
         this.endDate = endDate;
     }
 
@@ -0,0 +1,24 @@
+package com.expensetracker.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.time.LocalDate;
+
+/**
+ * LocalDate disimpan sebagai jumlah hari sejak 1970-01-01 (INTEGER).
+ * Perbandingan dan range scan di SQLite menjadi perbandingan integer biasa.
+ */
+@Converter
+public class EpochDayConverter implements AttributeConverter<LocalDate, Long> {
+
+    @Override
+    public Long convertToDatabaseColumn(LocalDate date) {
+        return date != null ? date.toEpochDay() : null;
+    }
+
+    @Override
+    public LocalDate convertToEntityAttribute(Long epochDay) {
+        return epochDay != null ? LocalDate.ofEpochDay(epochDay) : null;
+    }
+}
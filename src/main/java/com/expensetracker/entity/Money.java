@@ -0,0 +1,51 @@
+package com.expensetracker.entity;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Nominal uang disimpan sebagai long dalam satuan terkecil (1/100 Rupiah) supaya SUM dan
+ * perbandingan eksak. Di JSON tetap ditulis/dibaca sebagai angka Rupiah biasa (mis. 15000.5).
+ */
+public final class Money {
+
+    public static final int SCALE = 2;
+
+    private Money() {}
+
+    public static long toMinor(BigDecimal major) {
+        return major.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    // Nilai dengan maksimal 2 desimal; cukup tepat untuk double selama di bawah 2^53 satuan
+    public static double toMajor(long minor) {
+        return BigDecimal.valueOf(minor, SCALE).doubleValue();
+    }
+
+    public static class Serializer extends JsonSerializer<Long> {
+        @Override
+        public void serialize(Long minor, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeNumber(toMajor(minor));
+        }
+    }
+
+    public static class Deserializer extends JsonDeserializer<Long> {
+        @Override
+        public Long deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            // Frontend lama kadang mengirim amount sebagai string
+            if (p.currentToken() == JsonToken.VALUE_STRING) {
+                return toMinor(new BigDecimal(p.getText().trim()));
+            }
+            return toMinor(p.getDecimalValue());
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.expensetracker.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Kolom created_at/updated_at tetap TEXT dalam format CURRENT_TIMESTAMP SQLite (UTC, "yyyy-MM-dd HH:mm:ss"),
+ * di entity dibaca sebagai LocalDateTime.
+ */
+@Converter
+public class SqliteTimestampConverter implements AttributeConverter<LocalDateTime, String> {
+
+    public static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    @Override
+    public String convertToDatabaseColumn(LocalDateTime timestamp) {
+        return timestamp != null ? timestamp.format(FORMAT) : null;
+    }
+
+    @Override
+    public LocalDateTime convertToEntityAttribute(String value) {
+        return parse(value);
+    }
+
+    public static LocalDateTime parse(String value) {
+        return value != null ? LocalDateTime.parse(value, FORMAT) : null;
+    }
+}
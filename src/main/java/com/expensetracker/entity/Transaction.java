@@ -1,7 +1,13 @@
 package com.expensetracker.entity;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.persistence.*;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
 @Entity
 @Table(name = "transactions")
 public class Transaction {
@@ -16,8 +22,11 @@ public class Transaction {
     @Column(name = "type", nullable = false)
     private String type;
 
+    // Satuan terkecil (1/100); di JSON tetap Rupiah
     @Column(name = "amount", nullable = false)
-    private Double amount;
+    @JsonSerialize(using = Money.Serializer.class)
+    @JsonDeserialize(using = Money.Deserializer.class)
+    private Long amount;
 
     @Column(name = "category_id", nullable = false)
     private Integer categoryId;
@@ -25,19 +34,25 @@ public class Transaction {
     @Column(name = "description")
     private String description;
 
+    // Disimpan sebagai epoch day (INTEGER); di JSON tetap "yyyy-MM-dd"
     @Column(name = "transaction_date", nullable = false)
-    private String transactionDate;
+    @Convert(converter = EpochDayConverter.class)
+    private LocalDate transactionDate;
 
     @Column(name = "created_at")
-    private String createdAt;
+    @Convert(converter = SqliteTimestampConverter.class)
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createdAt;
 
     @Column(name = "updated_at")
-    private String updatedAt;
+    @Convert(converter = SqliteTimestampConverter.class)
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime updatedAt;
 
     // Constructors
     public Transaction() {}
 
-    public Transaction(Integer userId, String type, Double amount, Integer categoryId, String description, String transactionDate) {
+    public Transaction(Integer userId, String type, Long amount, Integer categoryId, String description, LocalDate transactionDate) {
         this.userId = userId;
         this.type = type;
         this.amount = amount;
@@ -72,11 +87,11 @@ public class Transaction {
         this.type = type;
     }
 
-    public Double getAmount() {
+    public Long getAmount() {
         return amount;
     }
 
-    public void setAmount(Double amount) {
+    public void setAmount(Long amount) {
         this.amount = amount;
     }
 
@@ -96,27 +111,27 @@ public class Transaction {
         this.description = description;
     }
 
-    public String getTransactionDate() {
+    public LocalDate getTransactionDate() {
         return transactionDate;
     }
 
-    public void setTransactionDate(String transactionDate) {
+    public void setTransactionDate(LocalDate transactionDate) {
         this.transactionDate = transactionDate;
     }
 
-    public String getCreatedAt() {
+    public LocalDateTime getCreatedAt() {
         return createdAt;
     }
 
-    public void setCreatedAt(String createdAt) {
+    public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
 
-    public String getUpdatedAt() {
+    public LocalDateTime getUpdatedAt() {
         return updatedAt;
     }
 
-    public void setUpdatedAt(String updatedAt) {
+    public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
 
@@ -1,5 +1,6 @@
 package com.expensetracker.entity;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 
 @Entity
@@ -16,7 +17,9 @@ public class User {
     @Column(name = "email")
     private String email;
 
+    // Diterima dari request (password mentah saat create/update), tidak pernah ikut di response
     @Column(name = "password_hash")
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String passwordHash;
 
     @Column(name = "role")
@@ -0,0 +1,20 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.entity.Budget;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+// Query method dijalankan sebagai transaksi readOnly agar dirutekan ke pool baca
+@Repository
+@Transactional(readOnly = true)
+public interface BudgetRepository extends JpaRepository<Budget, Integer> {
+
+    List<Budget> findByUserId(Integer userId);
+
+    List<Budget> findByUserIdAndIsActive(Integer userId, Integer isActive);
+
+    List<Budget> findByIsActive(Integer isActive);
+}
@@ -1,19 +1,33 @@
 package com.expensetracker.repository;
 
+import com.expensetracker.dto.CategoryView;
 import com.expensetracker.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
+// Query method dijalankan sebagai transaksi readOnly agar dirutekan ke pool baca
 @Repository
+@Transactional(readOnly = true)
 public interface CategoryRepository extends JpaRepository<Category, Integer> {
 
-    List<Category> findByType(String type);
+    // Query list memakai constructor expression: CategoryView langsung dari baris, tanpa entity
+    String SELECT_VIEW = "SELECT new com.expensetracker.dto.CategoryView(" +
+                         "c.id, c.name, c.type, c.color, c.icon, c.isDefault, c.userId, c.createdAt, c.updatedAt) " +
+                         "FROM Category c ";
+
+    @Query(SELECT_VIEW)
+    List<CategoryView> findAllViews();
+
+    @Query(SELECT_VIEW + "WHERE c.type = :type")
+    List<CategoryView> findViewsByType(@Param("type") String type);
     
-    List<Category> findByUserId(Integer userId);
+    @Query(SELECT_VIEW + "WHERE c.userId = :userId")
+    List<CategoryView> findViewsByUserId(@Param("userId") Integer userId);
     
     List<Category> findByTypeAndUserId(String type, Integer userId);
     
@@ -0,0 +1,16 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.entity.Setting;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+// Query method dijalankan sebagai transaksi readOnly agar dirutekan ke pool baca
+@Repository
+@Transactional(readOnly = true)
+public interface SettingRepository extends JpaRepository<Setting, Integer> {
+
+    List<Setting> findByUserId(Integer userId);
+}
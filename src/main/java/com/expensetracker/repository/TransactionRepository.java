@@ -1,40 +1,87 @@
 package com.expensetracker.repository;
 
+import com.expensetracker.dto.TransactionView;
 import com.expensetracker.entity.Transaction;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
+// Query method dijalankan sebagai transaksi readOnly agar dirutekan ke pool baca
 @Repository
+@Transactional(readOnly = true)
 public interface TransactionRepository extends JpaRepository<Transaction, Integer> {
 
-    List<Transaction> findByUserId(Integer userId);
+    // Query list memakai constructor expression: baris langsung menjadi TransactionView tanpa entity,
+    // persistence context dan snapshot dirty checking. created_at/updated_at dibaca apa adanya
+    // (cast melewati SqliteTimestampConverter); teks di database sudah sama dengan format JSON.
+    String SELECT_VIEW = "SELECT new com.expensetracker.dto.TransactionView(" +
+                         "t.id, t.userId, t.type, t.amount, t.categoryId, t.description, t.transactionDate, " +
+                         "cast(t.createdAt as String), cast(t.updatedAt as String)) FROM Transaction t ";
 
-    List<Transaction> findByCategoryId(Integer categoryId);
+    @Query(SELECT_VIEW)
+    List<TransactionView> findAllViews();
 
-    List<Transaction> findByType(String type);
+    @Query(SELECT_VIEW + "WHERE t.userId = :userId")
+    List<TransactionView> findViewsByUserId(@Param("userId") Integer userId);
 
-    List<Transaction> findByUserIdAndType(Integer userId, String type);
+    @Query(SELECT_VIEW + "WHERE t.categoryId = :categoryId")
+    List<TransactionView> findViewsByCategoryId(@Param("categoryId") Integer categoryId);
 
-    List<Transaction> findByUserIdAndTransactionDateBetween(Integer userId, String startDate, String endDate);
+    @Query(SELECT_VIEW + "WHERE t.type = :type")
+    List<TransactionView> findViewsByType(@Param("type") String type);
 
-    // Native query untuk INSERT - handle SQLite generated-keys issue
-    @Modifying
-    @Query(value = "INSERT INTO transactions (user_id, type, amount, category_id, description, transaction_date) " +
-                   "VALUES (:userId, :type, :amount, :categoryId, :description, :transactionDate)", 
+    @Query(SELECT_VIEW + "WHERE t.userId = :userId AND t.type = :type")
+    List<TransactionView> findViewsByUserIdAndType(@Param("userId") Integer userId, @Param("type") String type);
+
+    @Query(SELECT_VIEW + "WHERE t.userId = :userId AND t.transactionDate BETWEEN :startDate AND :endDate")
+    List<TransactionView> findViewsByUserIdAndDateRange(@Param("userId") Integer userId,
+                                                        @Param("startDate") LocalDate startDate,
+                                                        @Param("endDate") LocalDate endDate);
+
+    @Query(SELECT_VIEW + "WHERE t.id IN :ids")
+    List<TransactionView> findViewsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    // Keyset pagination: urut (transaction_date, id) DESC, limit dari Pageable (tanpa OFFSET).
+    // Syarat "transactionDate <= :date" memberi batas range agar index bisa dipakai.
+    @Query(SELECT_VIEW + "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<TransactionView> findFirstPage(Pageable pageable);
+
+    @Query(SELECT_VIEW +
+           "WHERE t.transactionDate <= :date AND (t.transactionDate < :date OR t.id < :id) " +
+           "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<TransactionView> findPageAfter(@Param("date") LocalDate date,
+                                        @Param("id") Integer id,
+                                        Pageable pageable);
+
+    @Query(SELECT_VIEW + "WHERE t.userId = :userId " +
+           "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<TransactionView> findFirstPageByUserId(@Param("userId") Integer userId, Pageable pageable);
+
+    @Query(SELECT_VIEW + "WHERE t.userId = :userId " +
+           "AND t.transactionDate <= :date AND (t.transactionDate < :date OR t.id < :id) " +
+           "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<TransactionView> findPageByUserIdAfter(@Param("userId") Integer userId,
+                                                @Param("date") LocalDate date,
+                                                @Param("id") Integer id,
+                                                Pageable pageable);
+
+    // Full-text search lewat transactions_fts. FTS5 mengalirkan kecocokan urut rowid DESC tanpa sort,
+    // jadi bm25 (kolom user_id tidak ikut dihitung) hanya dihitung untuk :candidates kecocokan terbaru;
+    // kata yang sangat umum tidak memaksa ranking atas ratusan ribu baris. Hanya id :limit hasil akhir
+    // (urut ranking) yang dikembalikan; barisnya dibaca dengan findViewsByIdIn.
+    @Query(value = "SELECT id FROM (" +
+                   "SELECT rowid AS id, bm25(transactions_fts, 1.0, 0.0) AS score FROM transactions_fts " +
+                   "WHERE transactions_fts MATCH :match ORDER BY rowid DESC LIMIT :candidates) " +
+                   "ORDER BY score, id DESC LIMIT :limit",
            nativeQuery = true)
-    void insertTransaction(@Param("userId") Integer userId,
-                         @Param("type") String type,
-                         @Param("amount") Double amount,
-                         @Param("categoryId") Integer categoryId,
-                         @Param("description") String description,
-                         @Param("transactionDate") String transactionDate);
-
-    // Query untuk mendapatkan ID terakhir yang di-insert
-    @Query(value = "SELECT last_insert_rowid()", nativeQuery = true)
-    Integer getLastInsertId();
+    List<Integer> searchIdsByDescription(@Param("match") String match,
+                                         @Param("candidates") int candidates,
+                                         @Param("limit") int limit);
 }
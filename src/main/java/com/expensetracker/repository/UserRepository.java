@@ -1,31 +1,68 @@
 package com.expensetracker.repository;
 
+import com.expensetracker.dto.UserView;
 import com.expensetracker.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+// Query method dijalankan sebagai transaksi readOnly agar dirutekan ke pool baca
 @Repository
+@Transactional(readOnly = true)
 public interface UserRepository extends JpaRepository<User, Integer> {
 
     Optional<User> findByEmail(String email);
     
     boolean existsByEmail(String email);
     
-    List<User> findByRole(String role);
+    // Query list memakai constructor expression: UserView langsung dari baris, tanpa entity dan
+    // tanpa membaca password_hash
+    String SELECT_VIEW = "SELECT new com.expensetracker.dto.UserView(" +
+                         "u.id, u.name, u.email, u.role, u.status, u.createdAt, u.updatedAt) FROM User u ";
     
-    List<User> findByStatus(String status);
+    @Query(SELECT_VIEW)
+    List<UserView> findAllViews();
+    
+    @Query(SELECT_VIEW + "WHERE u.role = :role")
+    List<UserView> findViewsByRole(@Param("role") String role);
+    
+    @Query(SELECT_VIEW + "WHERE u.status = :status")
+    List<UserView> findViewsByStatus(@Param("status") String status);
+    
+    @Query(SELECT_VIEW + "WHERE u.id IN :ids ORDER BY u.id")
+    List<UserView> findViewsByIdIn(@Param("ids") Collection<Integer> ids);
     
     @Query("SELECT u FROM User u WHERE u.email = :email AND u.status = 'ACTIVE'")
     Optional<User> findActiveUserByEmail(@Param("email") String email);
     
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+    
     @Query("SELECT COUNT(u) FROM User u WHERE u.role = :role")
     long countByRole(@Param("role") String role);
     
-    @Query("SELECT u FROM User u WHERE u.name LIKE %:name% OR u.email LIKE %:email%")
-    List<User> searchUsers(@Param("name") String name, @Param("email") String email);
+    // Pencarian substring name/email lewat index trigram users_fts; keyset id > :afterId urut id
+    // langsung dari index FTS, jadi biaya tiap halaman tidak bergantung pada jumlah kecocokan.
+    // Kedua pencarian hanya mengembalikan id; barisnya dibaca dengan findViewsByIdIn.
+    @Query(value = "SELECT rowid FROM users_fts WHERE users_fts MATCH :match AND rowid > :afterId " +
+                   "ORDER BY rowid LIMIT :limit",
+           nativeQuery = true)
+    List<Integer> searchIdsByTrigram(@Param("match") String match,
+                                     @Param("afterId") int afterId,
+                                     @Param("limit") int limit);
+    
+    // Query 1-2 karakter (di bawah panjang trigram): prefix name/email lewat index NOCASE.
+    // "+id" mencegah planner memilih scan primary key, yang menjadi full scan untuk prefix langka.
+    @Query(value = "SELECT id FROM users WHERE (name LIKE :prefix ESCAPE '\\' OR email LIKE :prefix ESCAPE '\\') " +
+                   "AND +id > :afterId ORDER BY id LIMIT :limit",
+           nativeQuery = true)
+    List<Integer> searchIdsByPrefix(@Param("prefix") String prefix,
+                                    @Param("afterId") int afterId,
+                                    @Param("limit") int limit);
 }
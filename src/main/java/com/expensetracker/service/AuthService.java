@@ -0,0 +1,91 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.LoginResponse;
+import com.expensetracker.entity.User;
+import com.expensetracker.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+@Service
+public class AuthService {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthService.class);
+
+    // Hanya menimpa hash yang diverifikasi saat login, supaya ganti password yang terjadi bersamaan tidak hilang
+    private static final String REHASH_SQL =
+        "UPDATE users SET password_hash = ?, updated_at = CURRENT_TIMESTAMP WHERE id = ? AND password_hash = ?";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserWriteExecutor userWriteExecutor;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private ChangeVersionService changeVersionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Hash pembanding untuk email yang tidak terdaftar, supaya waktu respons tidak membocorkan
+    // email mana yang ada
+    private volatile String unknownUserHash;
+
+    // Verifikasi BCrypt berjalan di executor hashing; error dikembalikan sebagai future yang gagal
+    public CompletableFuture<LoginResponse> login(String email, String password) {
+        if (email == null || password == null) {
+            return CompletableFuture.failedFuture(new RuntimeException("Email dan password wajib diisi"));
+        }
+        Optional<User> user = userRepository.findActiveUserByEmail(email.trim());
+        String passwordHash = user.map(User::getPasswordHash).orElseGet(this::unknownUserHash);
+        return passwordHashingService.matches(password, passwordHash).thenApply(matches -> {
+            if (!matches || user.isEmpty()) {
+                throw new RuntimeException("Email atau password salah");
+            }
+            if (passwordHashingService.needsRehash(passwordHash)) {
+                rehash(user.get().getId(), password, passwordHash);
+            }
+            return new LoginResponse(jwtService.issue(user.get()), jwtService.getExpirationSeconds(),
+                                     user.get().getId(), user.get().getRole());
+        });
+    }
+
+    public void logout(JwtService.VerifiedToken token) {
+        tokenRevocationService.revoke(token);
+    }
+
+    // Hash lama dengan cost di bawah cost saat ini diganti di latar belakang; respons login tidak menunggu
+    private void rehash(Integer userId, String password, String oldHash) {
+        passwordHashingService.hash(password).thenAcceptAsync(newHash -> {
+            if (jdbcTemplate.update(REHASH_SQL, newHash, userId, oldHash) > 0) {
+                changeVersionService.usersChanged();
+                log.debug("Rehashed password of user {} with cost {}", userId, passwordHashingService.getCost());
+            }
+        }, userWriteExecutor).exceptionally(e -> {
+            log.warn("Rehash for user {} failed: {}", userId, e.getMessage());
+            return null;
+        });
+    }
+
+    private String unknownUserHash() {
+        if (unknownUserHash == null) {
+            unknownUserHash = passwordHashingService.encoder().encode("unknown-user");
+        }
+        return unknownUserHash;
+    }
+}
@@ -0,0 +1,131 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.BudgetStatus;
+import com.expensetracker.entity.Budget;
+import com.expensetracker.repository.BudgetRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+@Service
+public class BudgetService {
+
+    private static final Set<String> PERIODS = Set.of("WEEKLY", "MONTHLY", "YEARLY");
+
+    // Satu statement: id langsung dikembalikan tanpa query last_insert_rowid() terpisah
+    private static final String INSERT_SQL =
+        "INSERT INTO budgets (user_id, category_id, amount, period, start_date, end_date, is_active) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?) RETURNING id";
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    @Autowired
+    private BudgetTracker budgetTracker;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public List<Budget> getAllBudgets() {
+        return budgetRepository.findAll();
+    }
+
+    public Optional<Budget> getBudgetById(Integer id) {
+        return budgetRepository.findById(id);
+    }
+
+    public List<Budget> getBudgetsByUser(Integer userId) {
+        return budgetRepository.findByUserId(userId);
+    }
+
+    public Budget createBudget(Budget budget) {
+        if (budget.getUserId() == null) {
+            throw new RuntimeException("User ID is required");
+        }
+        if (budget.getCategoryId() == null) {
+            throw new RuntimeException("Category ID is required");
+        }
+        if (budget.getAmount() == null || budget.getAmount() <= 0) {
+            throw new RuntimeException("Budget amount must be greater than 0");
+        }
+        String period = budget.getPeriod() != null ? budget.getPeriod().toUpperCase().trim() : "MONTHLY";
+        validatePeriod(period);
+        LocalDate startDate = budget.getStartDate() != null ? budget.getStartDate() : LocalDate.now();
+
+        Integer id = jdbcTemplate.queryForObject(INSERT_SQL, Integer.class,
+                budget.getUserId(), budget.getCategoryId(), budget.getAmount(), period, startDate.toEpochDay(),
+                budget.getEndDate() != null ? budget.getEndDate().toEpochDay() : null,
+                budget.getIsActive() != null ? budget.getIsActive() : 1);
+        Budget created = budgetRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Budget not found after insert"));
+        budgetTracker.refresh(created);
+        return created;
+    }
+
+    public Budget updateBudget(Integer id, Budget budgetDetails) {
+        Budget budget = budgetRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Budget not found"));
+
+        if (budgetDetails.getAmount() != null && budgetDetails.getAmount() > 0) {
+            budget.setAmount(budgetDetails.getAmount());
+        }
+        if (budgetDetails.getPeriod() != null) {
+            String period = budgetDetails.getPeriod().toUpperCase().trim();
+            validatePeriod(period);
+            budget.setPeriod(period);
+        }
+        if (budgetDetails.getStartDate() != null) {
+            budget.setStartDate(budgetDetails.getStartDate());
+        }
+        if (budgetDetails.getEndDate() != null) {
+            budget.setEndDate(budgetDetails.getEndDate());
+        }
+        if (budgetDetails.getIsActive() != null) {
+            budget.setIsActive(budgetDetails.getIsActive());
+        }
+
+        Budget saved = budgetRepository.save(budget);
+        budgetTracker.refresh(saved);
+        return saved;
+    }
+
+    public void deleteBudget(Integer id) {
+        Budget budget = budgetRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Budget not found"));
+        budgetRepository.delete(budget);
+        budgetTracker.remove(id);
+    }
+
+    // O(1) selama counter masih di periode berjalan; hanya dihitung ulang saat periode berganti
+    public BudgetStatus getStatus(Integer id) {
+        BudgetStatus status = budgetTracker.currentStatus(id);
+        if (status != null) {
+            return status;
+        }
+        Budget budget = budgetRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Budget not found"));
+        return budgetTracker.refresh(budget);
+    }
+
+    // Semua budget aktif milik user untuk periode berjalan, tanpa query ke database
+    public List<BudgetStatus> getStatusesByUser(Integer userId) {
+        List<BudgetStatus> statuses = new ArrayList<>();
+        for (Budget budget : budgetTracker.trackedBudgets(userId)) {
+            BudgetStatus status = budgetTracker.currentStatus(budget.getId());
+            statuses.add(status != null ? status : budgetTracker.refresh(budget));
+        }
+        return statuses;
+    }
+
+    private void validatePeriod(String period) {
+        if (!PERIODS.contains(period)) {
+            throw new RuntimeException("Budget period must be one of " + PERIODS);
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.BudgetStatus;
+import com.expensetracker.entity.Budget;
+import com.expensetracker.entity.Money;
+import com.expensetracker.entity.Transaction;
+import com.expensetracker.repository.BudgetRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Counter pengeluaran in-memory per budget aktif untuk periode berjalan.
+ * TransactionService melaporkan setiap perubahan EXPENSE, sehingga sisa budget bisa dibaca
+ * tanpa scan tabel transactions. Counter dihitung ulang dari SQL saat startup, saat budget
+ * dibuat/diubah, dan saat periodenya sudah lewat.
+ */
+@Service
+public class BudgetTracker {
+
+    private static final String SPENT_SQL =
+        "SELECT COALESCE(SUM(amount), 0) FROM transactions " +
+        "WHERE user_id = ? AND category_id = ? AND type = 'EXPENSE' AND transaction_date BETWEEN ? AND ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    private final Map<Integer, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Set<Integer>> budgetIdsByUserCategory = new ConcurrentHashMap<>();
+
+    // Penulis transaksi memegang read lock sejak menulis sampai delta diterapkan setelah commit,
+    // recompute memegang write lock. Dengan begitu tidak ada commit yang hilang atau terhitung
+    // dua kali di antara snapshot SQL dan delta in-memory.
+    private final ReentrantReadWriteLock recomputeLock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadAll() {
+        LocalDate today = LocalDate.now();
+        recomputeLock.writeLock().lock();
+        try {
+            counters.clear();
+            budgetIdsByUserCategory.clear();
+            for (Budget budget : budgetRepository.findByIsActive(1)) {
+                if (!hasEnded(budget, today)) {
+                    track(budget, today);
+                }
+            }
+        } finally {
+            recomputeLock.writeLock().unlock();
+        }
+    }
+
+    // Hitung ulang satu budget dari SQL; budget yang tidak aktif/sudah berakhir tidak dilacak lagi
+    @Transactional(readOnly = true)
+    public BudgetStatus refresh(Budget budget) {
+        LocalDate today = LocalDate.now();
+        recomputeLock.writeLock().lock();
+        try {
+            forget(budget.getId());
+            if (budget.getIsActive() != null && budget.getIsActive() == 1 && !hasEnded(budget, today)) {
+                return toStatus(track(budget, today));
+            }
+            Counter counter = newCounter(budget, today);
+            counter.spent.add(querySpent(budget, counter));
+            return toStatus(counter);
+        } finally {
+            recomputeLock.writeLock().unlock();
+        }
+    }
+
+    // O(1): null jika budget tidak dilacak atau periodenya sudah berganti (perlu refresh)
+    public BudgetStatus currentStatus(Integer budgetId) {
+        Counter counter = counters.get(budgetId);
+        if (counter == null || !counter.covers(LocalDate.now())) {
+            return null;
+        }
+        return toStatus(counter);
+    }
+
+    // Budget yang dilacak dan periodenya mencakup hari ini
+    public List<Budget> trackedBudgets(Integer userId) {
+        LocalDate today = LocalDate.now();
+        List<Budget> budgets = new ArrayList<>();
+        for (Counter counter : counters.values()) {
+            Budget budget = counter.budget;
+            if (budget.getUserId().equals(userId) && !budget.getStartDate().isAfter(today)) {
+                budgets.add(budget);
+            }
+        }
+        return budgets;
+    }
+
+    public void remove(Integer budgetId) {
+        recomputeLock.writeLock().lock();
+        try {
+            forget(budgetId);
+        } finally {
+            recomputeLock.writeLock().unlock();
+        }
+    }
+
+    // Budget ikut terhapus lewat ON DELETE CASCADE saat kategori/user dihapus
+    public void removeCategory(Integer categoryId) {
+        removeMatching(budget -> budget.getCategoryId().equals(categoryId));
+    }
+
+    // Kategori milik user yang dihapus, termasuk budget user lain pada kategori itu
+    public void removeCategories(Collection<Integer> categoryIds) {
+        if (!categoryIds.isEmpty()) {
+            removeMatching(budget -> categoryIds.contains(budget.getCategoryId()));
+        }
+    }
+
+    public void removeUser(Integer userId) {
+        removeMatching(budget -> budget.getUserId().equals(userId));
+    }
+
+    // Dipanggil di dalam transaksi penulis; delta baru diterapkan setelah commit
+    public void recordSpend(Integer userId, Integer categoryId, String type, LocalDate transactionDate, long amountDelta) {
+        if ("EXPENSE".equals(type)) {
+            applyAfterCommit(List.of(new SpendDelta(userId, categoryId, transactionDate, amountDelta)));
+        }
+    }
+
+    public void recordSpend(List<Transaction> inserted) {
+        List<SpendDelta> deltas = new ArrayList<>();
+        for (Transaction t : inserted) {
+            if ("EXPENSE".equals(t.getType())) {
+                deltas.add(new SpendDelta(t.getUserId(), t.getCategoryId(), t.getTransactionDate(), t.getAmount()));
+            }
+        }
+        if (!deltas.isEmpty()) {
+            applyAfterCommit(deltas);
+        }
+    }
+
+    // Bulk delete, dipanggil di dalam transaksi penulis sebelum DELETE: untuk setiap budget yang dilacak
+    // dan cocok dengan filter, EXPENSE yang akan terhapus dalam periodenya dihitung dengan satu query
+    // per budget (bukan per transaksi), lalu dikurangkan setelah commit
+    public void recordBulkDelete(Integer userId, Integer categoryId, LocalDate startDate, LocalDate endDate) {
+        recomputeLock.readLock().lock();
+        try {
+            Map<Counter, Long> deltas = new HashMap<>();
+            for (Counter counter : counters.values()) {
+                Budget budget = counter.budget;
+                if ((userId != null && !budget.getUserId().equals(userId))
+                        || (categoryId != null && !budget.getCategoryId().equals(categoryId))) {
+                    continue;
+                }
+                LocalDate from = startDate != null && startDate.isAfter(counter.start) ? startDate : counter.start;
+                LocalDate to = endDate != null && endDate.isBefore(counter.end) ? endDate : counter.end;
+                if (from.isAfter(to)) {
+                    continue;
+                }
+                Long spent = jdbcTemplate.queryForObject(SPENT_SQL, Long.class, budget.getUserId(),
+                                                         budget.getCategoryId(), from.toEpochDay(), to.toEpochDay());
+                if (spent != null && spent != 0) {
+                    deltas.put(counter, -spent);
+                }
+            }
+            if (!deltas.isEmpty()) {
+                applyAfterCommit(() -> deltas.forEach((counter, amount) -> counter.spent.add(amount)));
+            }
+        } finally {
+            recomputeLock.readLock().unlock();
+        }
+    }
+
+    private void applyAfterCommit(List<SpendDelta> deltas) {
+        applyAfterCommit(() -> deltas.forEach(this::apply));
+    }
+
+    private void applyAfterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        recomputeLock.readLock().lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                try {
+                    if (status == STATUS_COMMITTED) {
+                        action.run();
+                    }
+                } finally {
+                    recomputeLock.readLock().unlock();
+                }
+            }
+        });
+    }
+
+    private void apply(SpendDelta delta) {
+        Set<Integer> budgetIds = budgetIdsByUserCategory.get(key(delta.userId(), delta.categoryId()));
+        if (budgetIds == null) {
+            return;
+        }
+        for (Integer budgetId : budgetIds) {
+            Counter counter = counters.get(budgetId);
+            if (counter != null && counter.covers(delta.transactionDate())) {
+                counter.spent.add(delta.amount());
+            }
+        }
+    }
+
+    // Harus dipanggil dengan write lock
+    private Counter track(Budget budget, LocalDate today) {
+        Counter counter = newCounter(budget, today);
+        counter.spent.add(querySpent(budget, counter));
+        counters.put(budget.getId(), counter);
+        budgetIdsByUserCategory.computeIfAbsent(key(budget.getUserId(), budget.getCategoryId()),
+                k -> ConcurrentHashMap.newKeySet()).add(budget.getId());
+        return counter;
+    }
+
+    // Harus dipanggil dengan write lock
+    private void forget(Integer budgetId) {
+        Counter counter = counters.remove(budgetId);
+        if (counter != null) {
+            Set<Integer> budgetIds = budgetIdsByUserCategory.get(key(counter.budget.getUserId(), counter.budget.getCategoryId()));
+            if (budgetIds != null) {
+                budgetIds.remove(budgetId);
+            }
+        }
+    }
+
+    private void removeMatching(Predicate<Budget> predicate) {
+        recomputeLock.writeLock().lock();
+        try {
+            for (Counter counter : new ArrayList<>(counters.values())) {
+                if (predicate.test(counter.budget)) {
+                    forget(counter.budget.getId());
+                }
+            }
+        } finally {
+            recomputeLock.writeLock().unlock();
+        }
+    }
+
+    private long querySpent(Budget budget, Counter counter) {
+        if (counter.end.isBefore(counter.start)) {
+            return 0;
+        }
+        Long spent = jdbcTemplate.queryForObject(SPENT_SQL, Long.class, budget.getUserId(), budget.getCategoryId(),
+                                                 counter.start.toEpochDay(), counter.end.toEpochDay());
+        return spent != null ? spent : 0;
+    }
+
+    // Periode yang memuat tanggal acuan (hari ini, dibatasi ke start_date..end_date budget)
+    private Counter newCounter(Budget budget, LocalDate today) {
+        LocalDate budgetStart = budget.getStartDate();
+        LocalDate budgetEnd = budget.getEndDate();
+        LocalDate reference = today.isBefore(budgetStart) ? budgetStart : today;
+        if (budgetEnd != null && reference.isAfter(budgetEnd)) {
+            reference = budgetEnd;
+        }
+
+        LocalDate start;
+        LocalDate end;
+        String period = budget.getPeriod() != null ? budget.getPeriod().toUpperCase() : "MONTHLY";
+        switch (period) {
+            case "WEEKLY":
+                start = reference.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                end = start.plusDays(6);
+                break;
+            case "YEARLY":
+                start = reference.with(TemporalAdjusters.firstDayOfYear());
+                end = reference.with(TemporalAdjusters.lastDayOfYear());
+                break;
+            default:
+                start = reference.with(TemporalAdjusters.firstDayOfMonth());
+                end = reference.with(TemporalAdjusters.lastDayOfMonth());
+        }
+        if (start.isBefore(budgetStart)) {
+            start = budgetStart;
+        }
+        if (budgetEnd != null && end.isAfter(budgetEnd)) {
+            end = budgetEnd;
+        }
+        return new Counter(budget, start, end);
+    }
+
+    private boolean hasEnded(Budget budget, LocalDate today) {
+        return budget.getEndDate() != null && budget.getEndDate().isBefore(today);
+    }
+
+    private BudgetStatus toStatus(Counter counter) {
+        Budget budget = counter.budget;
+        return new BudgetStatus(budget.getId(), budget.getUserId(), budget.getCategoryId(), budget.getPeriod(),
+                                counter.start.toString(), counter.end.toString(),
+                                Money.toMajor(budget.getAmount()), Money.toMajor(counter.spent.sum()));
+    }
+
+    private static String key(Integer userId, Integer categoryId) {
+        return userId + "/" + categoryId;
+    }
+
+    private record SpendDelta(Integer userId, Integer categoryId, LocalDate transactionDate, long amount) {}
+
+    private static final class Counter {
+        private final Budget budget;
+        private final LocalDate start;
+        private final LocalDate end;
+        private final LongAdder spent = new LongAdder();
+
+        private Counter(Budget budget, LocalDate start, LocalDate end) {
+            this.budget = budget;
+            this.start = start;
+            this.end = end;
+        }
+
+        private boolean covers(LocalDate date) {
+            return !date.isBefore(start) && !date.isAfter(end);
+        }
+    }
+}
@@ -1,8 +1,14 @@
 package com.expensetracker.service;
 
+import com.expensetracker.config.CacheConfig;
+import com.expensetracker.dto.CategoryView;
 import com.expensetracker.entity.Category;
 import com.expensetracker.repository.CategoryRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -14,20 +20,37 @@ public class CategoryService {
     @Autowired
     private CategoryRepository categoryRepository;
 
-    public List<Category> getAllCategories() {
-        return categoryRepository.findAll();
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ChangeVersionService changeVersionService;
+
+    @Autowired
+    private BudgetTracker budgetTracker;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // List di cache berisi CategoryView yang immutable, jadi aman dibagikan ke semua request
+    @Cacheable(CacheConfig.CATEGORIES)
+    public List<CategoryView> getAllCategories() {
+        return categoryRepository.findAllViews();
     }
 
+    @Cacheable(cacheNames = CacheConfig.CATEGORY, unless = "#result == null")
     public Optional<Category> getCategoryById(Integer id) {
         return categoryRepository.findById(id);
     }
 
-    public List<Category> getCategoriesByType(String type) {
-        return categoryRepository.findByType(type);
+    @Cacheable(CacheConfig.CATEGORIES_BY_TYPE)
+    public List<CategoryView> getCategoriesByType(String type) {
+        return categoryRepository.findViewsByType(type);
     }
 
-    public List<Category> getCategoriesByUser(Integer userId) {
-        return categoryRepository.findByUserId(userId);
+    @Cacheable(CacheConfig.CATEGORIES_BY_USER)
+    public List<CategoryView> getCategoriesByUser(Integer userId) {
+        return categoryRepository.findViewsByUserId(userId);
     }
 
     public Category createCategory(Category category) {
@@ -37,13 +60,18 @@ public class CategoryService {
         if (category.getType() == null) {
             throw new RuntimeException("Category type is required");
         }
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        evict(saved.getId(), saved.getType(), saved.getUserId());
+        return saved;
     }
 
     public Category updateCategory(Integer id, Category categoryDetails) {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Category not found"));
 
+        // Type lama ikut di-evict karena kategori bisa pindah dari list type tersebut
+        String previousType = category.getType();
+
         if (categoryDetails.getName() != null) {
             category.setName(categoryDetails.getName());
         }
@@ -57,13 +85,61 @@ public class CategoryService {
             category.setIcon(categoryDetails.getIcon());
         }
 
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        evict(saved.getId(), previousType, saved.getUserId());
+        evict(saved.getId(), saved.getType(), saved.getUserId());
+        return saved;
     }
 
+    // Satu DELETE ... RETURNING: type dan user_id untuk eviction cache didapat tanpa SELECT terpisah;
+    // transaksi, budget dan rollup kategori ini ikut terhapus lewat ON DELETE CASCADE
     public void deleteCategory(Integer id) {
-        if (!categoryRepository.existsById(id)) {
+        List<Category> deleted = jdbcTemplate.query("DELETE FROM categories WHERE id = ? RETURNING type, user_id",
+                (rs, rowNum) -> {
+                    Category category = new Category();
+                    category.setType(rs.getString("type"));
+                    int userId = rs.getInt("user_id");
+                    category.setUserId(rs.wasNull() ? null : userId);
+                    return category;
+                }, id);
+        if (deleted.isEmpty()) {
             throw new RuntimeException("Category not found");
         }
-        categoryRepository.deleteById(id);
+        evict(id, deleted.get(0).getType(), deleted.get(0).getUserId());
+        // Transaksi dengan kategori ini ikut terhapus (ON DELETE CASCADE), usernya tidak diketahui di sini
+        changeVersionService.transactionsChangedForAllUsers();
+        budgetTracker.removeCategory(id);
+    }
+
+    // Dipanggil saat user dihapus: kategorinya ikut terhapus lewat ON DELETE CASCADE
+    public void evictUserCategories(Integer userId) {
+        clear(CacheConfig.CATEGORIES);
+        clear(CacheConfig.CATEGORIES_BY_TYPE);
+        clear(CacheConfig.CATEGORY);
+        evictKey(CacheConfig.CATEGORIES_BY_USER, userId);
+        changeVersionService.categoriesChanged();
+    }
+
+    // Hanya entri yang bisa memuat kategori ini yang dibuang, cache lain tetap hangat
+    private void evict(Integer id, String type, Integer userId) {
+        clear(CacheConfig.CATEGORIES);
+        evictKey(CacheConfig.CATEGORY, id);
+        evictKey(CacheConfig.CATEGORIES_BY_TYPE, type);
+        evictKey(CacheConfig.CATEGORIES_BY_USER, userId);
+        changeVersionService.categoriesChanged();
+    }
+
+    private void evictKey(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null && key != null) {
+            cache.evict(key);
+        }
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
     }
 }
@@ -0,0 +1,82 @@
+package com.expensetracker.service;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counter versi in-memory untuk ETag endpoint koleksi. Setiap penulisan menaikkan counter
+ * setelah commit, sehingga request GET bisa dijawab 304 tanpa query ke database.
+ * bootId membuat ETag dari proses sebelumnya (sebelum restart) tidak pernah cocok lagi.
+ */
+@Service
+public class ChangeVersionService {
+
+    private final String bootId = UUID.randomUUID().toString().substring(0, 8);
+
+    private final AtomicLong categories = new AtomicLong();
+    private final AtomicLong users = new AtomicLong();
+    private final AtomicLong transactions = new AtomicLong();
+    // Dinaikkan saat perubahan mengenai transaksi user yang tidak diketahui (mis. cascade hapus kategori)
+    private final AtomicLong transactionsEpoch = new AtomicLong();
+    private final Map<Integer, AtomicLong> transactionsByUser = new ConcurrentHashMap<>();
+
+    public String categoriesEtag() {
+        return bootId + "-c" + categories.get();
+    }
+
+    public String usersEtag() {
+        return bootId + "-u" + users.get();
+    }
+
+    public String transactionsEtag() {
+        return bootId + "-t" + transactions.get();
+    }
+
+    public String userTransactionsEtag(Integer userId) {
+        AtomicLong version = transactionsByUser.get(userId);
+        return bootId + "-t" + transactionsEpoch.get() + "." + userId + "." + (version != null ? version.get() : 0);
+    }
+
+    public void categoriesChanged() {
+        afterCommit(categories::incrementAndGet);
+    }
+
+    public void usersChanged() {
+        afterCommit(users::incrementAndGet);
+    }
+
+    public void transactionsChanged(Integer userId) {
+        afterCommit(() -> {
+            transactionsByUser.computeIfAbsent(userId, id -> new AtomicLong()).incrementAndGet();
+            transactions.incrementAndGet();
+        });
+    }
+
+    public void transactionsChangedForAllUsers() {
+        afterCommit(() -> {
+            transactionsEpoch.incrementAndGet();
+            transactions.incrementAndGet();
+        });
+    }
+
+    // Versi baru hanya terlihat setelah data ter-commit; kalau dinaikkan lebih dulu, pembaca bisa
+    // menyimpan data lama dengan ETag baru dan tidak pernah mengambil ulang
+    private void afterCommit(Runnable bump) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump.run();
+                }
+            });
+        } else {
+            bump.run();
+        }
+    }
+}
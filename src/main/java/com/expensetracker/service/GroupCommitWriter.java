@@ -0,0 +1,196 @@
+package com.expensetracker.service;
+
+import com.expensetracker.entity.Transaction;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Mode group commit (opsional) untuk POST /transactions.
+ * Request masuk ke antrian terbatas; satu thread penulis mengumpulkan hingga max-batch-size baris
+ * atau menunggu paling lama flush-interval-ms sejak baris pertama, lalu menulis semuanya dalam
+ * satu transaksi SQLite. Setiap pemanggil baru mendapat ID setelah batch-nya ter-commit.
+ */
+@Service
+public class GroupCommitWriter {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Value("${transactions.group-commit.enabled:false}")
+    private boolean enabled;
+
+    @Value("${transactions.group-commit.max-batch-size:256}")
+    private int maxBatchSize;
+
+    @Value("${transactions.group-commit.flush-interval-ms:5}")
+    private long flushIntervalMs;
+
+    @Value("${transactions.group-commit.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${transactions.group-commit.response-timeout-ms:10000}")
+    private long responseTimeoutMs;
+
+    private BlockingQueue<PendingWrite> queue;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        // Sengaja platform thread: thread ini hampir selalu berada di dalam JDBC (synchronized),
+        // jadi sebagai virtual thread ia akan terus mem-pin carrier
+        writerThread = new Thread(this::runWriter, "group-commit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writerThread == null) {
+            return;
+        }
+        // Tidak di-interrupt: sisa antrian tetap di-flush sebelum thread berhenti
+        running = false;
+        writerThread.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getQueueDepth() {
+        return queue != null ? queue.size() : 0;
+    }
+
+    // Memblokir pemanggil sampai batch yang memuat transaksi ini sudah di-commit
+    public Transaction submit(Transaction transaction) {
+        transactionService.prepareNewTransaction(transaction);
+
+        PendingWrite pending = new PendingWrite(transaction);
+        if (!running || !queue.offer(pending)) {
+            throw new WriteQueueFullException("Write queue is full, please retry");
+        }
+        try {
+            return await(pending);
+        } catch (TimeoutException e) {
+            // Belum diambil thread penulis: dibatalkan dan dilewati, jadi pasti tidak tersimpan
+            if (pending.claimed.compareAndSet(false, true)) {
+                throw new WriteTimeoutException("Timed out in write queue, transaction was not saved, please retry", false);
+            }
+            // Batch-nya sedang ditulis: tunggu sekali lagi sebelum menyerah
+            try {
+                return await(pending);
+            } catch (TimeoutException again) {
+                throw new WriteTimeoutException("Timed out waiting for group commit, outcome unknown", true);
+            }
+        }
+    }
+
+    private Transaction await(PendingWrite pending) throws TimeoutException {
+        try {
+            return pending.result.get(responseTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException(cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            boolean cancelled = pending.claimed.compareAndSet(false, true);
+            throw new WriteTimeoutException("Interrupted while waiting for group commit", !cancelled);
+        }
+    }
+
+    private void runWriter() {
+        List<PendingWrite> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingWrite next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingWrite> queued) {
+        // Tulisan yang pemanggilnya sudah menyerah (timeout) dilewati, supaya retry client tidak menjadi duplikat
+        List<PendingWrite> batch = new ArrayList<>(queued.size());
+        List<Transaction> rows = new ArrayList<>(queued.size());
+        for (PendingWrite pending : queued) {
+            if (pending.claimed.compareAndSet(false, true)) {
+                batch.add(pending);
+                rows.add(pending.transaction);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionService.insertPreparedBatch(rows);
+            for (PendingWrite pending : batch) {
+                pending.result.complete(pending.transaction);
+            }
+        } catch (RuntimeException e) {
+            // Satu baris bermasalah tidak boleh menggagalkan pemanggil lain: ulangi satu per satu
+            for (PendingWrite pending : batch) {
+                try {
+                    pending.result.complete(transactionService.createTransaction(pending.transaction));
+                } catch (RuntimeException ex) {
+                    pending.result.completeExceptionally(ex);
+                }
+            }
+        }
+    }
+
+    private static class PendingWrite {
+        private final Transaction transaction;
+        private final CompletableFuture<Transaction> result = new CompletableFuture<>();
+        // Diambil oleh thread penulis sebelum ditulis, atau oleh pemanggil saat timeout untuk membatalkan
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private PendingWrite(Transaction transaction) {
+            this.transaction = transaction;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.expensetracker.service;
+
+import com.expensetracker.entity.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Menerbitkan dan memverifikasi JWT (HMAC, jwt.secret).
+ * Token yang sudah pernah diverifikasi disimpan di cache terbatas dengan key hash SHA-256 token,
+ * sampai token itu expired; request berikutnya tidak menghitung HMAC dan tidak membaca tabel users.
+ * Revocation tetap dicek di setiap request, juga untuk token yang diambil dari cache.
+ */
+@Service
+public class JwtService {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtService.class);
+
+    private static final String ISSUED_AT_MS_CLAIM = "iat_ms";
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${jwt.secret}")
+    private String secret;
+
+    @Value("${jwt.expiration}")
+    private long expirationMs;
+
+    @Value("${jwt.cache-size:10000}")
+    private long cacheSize;
+
+    private SecretKey key;
+    private JwtParser parser;
+    private Cache<String, VerifiedToken> verifiedTokens;
+
+    @PostConstruct
+    public void init() {
+        key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser().verifyWith(key).build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String tokenHash, VerifiedToken token, long currentTime) {
+                        long remainingMs = token.expiresAt() * 1000 - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMs, 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String tokenHash, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String tokenHash, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwtTokens");
+    }
+
+    public String issue(User user) {
+        long now = tokenRevocationService.nextTimestamp();
+        return Jwts.builder()
+                .id(UUID.randomUUID().toString())
+                .subject(String.valueOf(user.getId()))
+                .claim("email", user.getEmail())
+                .claim("role", user.getRole())
+                .issuedAt(new Date(now))
+                // iat standar hanya per detik; pencabutan per user dibandingkan per milidetik
+                .claim(ISSUED_AT_MS_CLAIM, now)
+                .expiration(new Date(now + expirationMs))
+                .signWith(key)
+                .compact();
+    }
+
+    public long getExpirationSeconds() {
+        return expirationMs / 1000;
+    }
+
+    // Token valid dan belum dicabut, atau null; hanya cache miss yang menghitung HMAC
+    public VerifiedToken authenticate(String token) {
+        String tokenHash = hash(token);
+        VerifiedToken verified = verifiedTokens.getIfPresent(tokenHash);
+        if (verified == null) {
+            verified = verify(token);
+            if (verified == null) {
+                return null;
+            }
+            verifiedTokens.put(tokenHash, verified);
+        }
+        // Cache expiry tidak presisi sampai milidetik; exp tetap dicek di sini
+        if (verified.expiresAt() <= System.currentTimeMillis() / 1000 || tokenRevocationService.isRevoked(verified)) {
+            return null;
+        }
+        return verified;
+    }
+
+    // Verifikasi signature dan exp tanpa cache
+    public VerifiedToken verify(String token) {
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            String role = claims.get("role", String.class);
+            if (claims.getId() == null || claims.getIssuedAt() == null || claims.getExpiration() == null || role == null) {
+                log.debug("Rejected JWT: missing claims");
+                return null;
+            }
+            // Token lama tanpa iat_ms: awal detik iat, dibandingkan tidak strict oleh TokenRevocationService
+            Long issuedAtMs = claims.get(ISSUED_AT_MS_CLAIM, Long.class);
+            return new VerifiedToken(
+                    Integer.valueOf(claims.getSubject()),
+                    claims.get("email", String.class),
+                    role,
+                    claims.getId(),
+                    issuedAtMs != null ? issuedAtMs : claims.getIssuedAt().getTime(),
+                    issuedAtMs != null,
+                    claims.getExpiration().getTime() / 1000,
+                    List.of(new SimpleGrantedAuthority("ROLE_" + role)));
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Rejected JWT: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Claims token yang sudah diverifikasi. issuedAt dalam epoch milidetik (preciseIssuedAt false untuk
+     * token lama tanpa iat_ms: hanya presisi detik), expiresAt dalam epoch detik.
+     */
+    public record VerifiedToken(Integer userId, String email, String role, String tokenId,
+                                long issuedAt, boolean preciseIssuedAt, long expiresAt,
+                                List<GrantedAuthority> authorities) {}
+}
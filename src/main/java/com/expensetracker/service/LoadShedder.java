@@ -0,0 +1,147 @@
+package com.expensetracker.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Menolak sebagian request tulis saat penulis SQLite tidak bisa mengimbangi, sebelum request itu
+ * ikut mengantri dan memperlambat semua yang lain.
+ * Antrian penulis = antrian group commit + thread yang menunggu koneksi tulis (pool berisi satu
+ * koneksi). Di atas maxQueueDepth endpoint, semua request ditolak. Selain itu porsi request yang
+ * diterima per endpoint diatur tiap detik dari p99 latency-nya (AIMD): dikali 0.5 selama p99 di atas
+ * target, naik 0.1 selama di bawah target, tidak pernah di bawah MIN_ADMIT supaya latency tetap terukur.
+ */
+@Service
+public class LoadShedder {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadShedder.class);
+
+    private static final double MIN_ADMIT = 0.05;
+
+    @Autowired
+    private GroupCommitWriter groupCommitWriter;
+
+    @Autowired
+    @Qualifier("writeDataSource")
+    private HikariDataSource writeDataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${load-shedding.enabled:true}")
+    private boolean enabled;
+
+    // Jendela p99; request lama tidak lagi mempengaruhi porsi yang diterima setelah ini
+    @Value("${load-shedding.latency-window-seconds:10}")
+    private long latencyWindowSeconds;
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService controller;
+
+    @PostConstruct
+    public void start() {
+        meterRegistry.gauge("loadshed.writer.queue", this, LoadShedder::getWriterQueueDepth);
+        controller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "load-shedder");
+            thread.setDaemon(true);
+            return thread;
+        });
+        controller.scheduleAtFixedRate(this::adjust, 1, 1, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        controller.shutdownNow();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getWriterQueueDepth() {
+        HikariPoolMXBean pool = writeDataSource.getHikariPoolMXBean();
+        return groupCommitWriter.getQueueDepth() + (pool != null ? pool.getThreadsAwaitingConnection() : 0);
+    }
+
+    // null jika request diterima, selain itu alasan penolakan (tag metrics)
+    public String check(String endpoint, int maxQueueDepth, long maxP99Ms) {
+        Endpoint state = endpoints.computeIfAbsent(endpoint, name -> new Endpoint(name, maxP99Ms));
+        String reason = null;
+        if (getWriterQueueDepth() >= maxQueueDepth) {
+            reason = "queue";
+        } else if (state.admitRatio < 1 && ThreadLocalRandom.current().nextDouble() >= state.admitRatio) {
+            reason = "latency";
+        }
+        if (reason != null) {
+            meterRegistry.counter("loadshed.rejected", "endpoint", endpoint, "reason", reason).increment();
+        }
+        return reason;
+    }
+
+    // Hanya request yang diterima yang dicatat
+    public void record(String endpoint, long nanos) {
+        Endpoint state = endpoints.get(endpoint);
+        if (state != null) {
+            state.latency.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void adjust() {
+        for (Endpoint state : endpoints.values()) {
+            double p99Ms = 0;
+            for (ValueAtPercentile value : state.latency.takeSnapshot().percentileValues()) {
+                p99Ms = value.value(TimeUnit.MILLISECONDS);
+            }
+            double previous = state.admitRatio;
+            state.admitRatio = p99Ms > state.maxP99Ms
+                    ? Math.max(MIN_ADMIT, previous * 0.5)
+                    : Math.min(1, previous + 0.1);
+            if (previous == 1 && state.admitRatio < 1) {
+                log.warn("Shedding {}: p99 {} ms above {} ms", state.name, Math.round(p99Ms), state.maxP99Ms);
+            } else if (previous < 1 && state.admitRatio == 1) {
+                log.info("Stopped shedding {}", state.name);
+            }
+        }
+    }
+
+    private final class Endpoint {
+        final String name;
+        final long maxP99Ms;
+        final Timer latency;
+        volatile double admitRatio = 1;
+
+        Endpoint(String name, long maxP99Ms) {
+            this.name = name;
+            this.maxP99Ms = maxP99Ms;
+            this.latency = Timer.builder("loadshed.latency")
+                    .tag("endpoint", name)
+                    .publishPercentiles(0.99)
+                    .distributionStatisticExpiry(Duration.ofSeconds(latencyWindowSeconds))
+                    .distributionStatisticBufferLength(2)
+                    .register(meterRegistry);
+            meterRegistry.gauge("loadshed.admit.ratio", Tags.of("endpoint", name),
+                    this, e -> e.admitRatio);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.expensetracker.service;
+
+/**
+ * Dilempar saat antrian executor hashing password penuh; controller menjawab 503 agar client mencoba lagi.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
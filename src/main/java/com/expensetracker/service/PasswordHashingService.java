@@ -0,0 +1,155 @@
+package com.expensetracker.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Hash dan verifikasi password BCrypt di executor sendiri yang terbatas (thread = jumlah core,
+ * antrian password.hashing.queue-capacity), bukan di thread Tomcat.
+ * Cost BCrypt dikalibrasi saat startup: cost tertinggi yang satu hash-nya masih di bawah
+ * password.hashing.target-ms di mesin ini, minimal 10. Hash lama dengan cost lebih rendah
+ * di-hash ulang saat user berhasil login (needsRehash).
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    // Default BCryptPasswordEncoder; kalibrasi tidak pernah memilih cost di bawah ini
+    private static final int MIN_COST = 10;
+    private static final int MAX_COST = 16;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${password.hashing.target-ms:100}")
+    private long targetMs;
+
+    // 0 = kalibrasi otomatis
+    @Value("${password.hashing.cost:0}")
+    private int fixedCost;
+
+    // 0 = jumlah core
+    @Value("${password.hashing.threads:0}")
+    private int threads;
+
+    @Value("${password.hashing.queue-capacity:1000}")
+    private int queueCapacity;
+
+    private int cost;
+    private BCryptPasswordEncoder encoder;
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void start() {
+        cost = fixedCost > 0 ? fixedCost : calibrate();
+        encoder = new BCryptPasswordEncoder(cost);
+        if (threads <= 0) {
+            threads = Runtime.getRuntime().availableProcessors();
+        }
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hasher-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "passwordHashing");
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    // Encoder dengan cost hasil kalibrasi, untuk pemakaian sinkron (bean PasswordEncoder)
+    public PasswordEncoder encoder() {
+        return encoder;
+    }
+
+    public CompletableFuture<String> hash(String rawPassword) {
+        return submit(() -> encoder.encode(rawPassword));
+    }
+
+    public CompletableFuture<Boolean> matches(String rawPassword, String passwordHash) {
+        return submit(() -> encoder.matches(rawPassword, passwordHash));
+    }
+
+    // Hash yang dibuat dengan cost lebih rendah dari cost saat ini (cost tidak pernah diturunkan)
+    public boolean needsRehash(String passwordHash) {
+        try {
+            return encoder.upgradeEncoding(passwordHash);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    // Import massal: dibagi menjadi satu potongan per thread, hasil sejajar dengan input
+    public CompletableFuture<List<String>> hashAll(List<String> rawPasswords) {
+        int chunks = Math.max(1, Math.min(threads, rawPasswords.size()));
+        int chunkSize = (rawPasswords.size() + chunks - 1) / chunks;
+        List<CompletableFuture<List<String>>> parts = new ArrayList<>(chunks);
+        for (int from = 0; from < rawPasswords.size(); from += chunkSize) {
+            List<String> chunk = rawPasswords.subList(from, Math.min(from + chunkSize, rawPasswords.size()));
+            parts.add(submit(() -> chunk.stream().map(encoder::encode).toList()));
+        }
+        return CompletableFuture.allOf(parts.toArray(new CompletableFuture[0])).thenApply(ignored -> {
+            List<String> hashes = new ArrayList<>(rawPasswords.size());
+            parts.forEach(part -> hashes.addAll(part.join()));
+            return hashes;
+        });
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(
+                    new PasswordHashingBusyException("Password hashing queue is full, please retry"));
+        }
+    }
+
+    // Setiap kenaikan cost menggandakan waktu hash; waktu cost 10 diukur sekali (terbaik dari 3)
+    private int calibrate() {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(MIN_COST);
+        probe.encode("calibration");
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        double millis = best / 1_000_000.0;
+        int calibrated = MIN_COST;
+        while (calibrated < MAX_COST && millis * 2 <= targetMs) {
+            calibrated++;
+            millis *= 2;
+        }
+        log.info("BCrypt cost {} (~{} ms per hash, target {} ms)", calibrated, Math.round(millis), targetMs);
+        return calibrated;
+    }
+}
@@ -0,0 +1,83 @@
+package com.expensetracker.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket per (endpoint, user atau IP), dihitung dengan GCRA: satu AtomicLong per bucket
+ * yang dimajukan dengan compare-and-set, tanpa lock dan tanpa thread pengisi token.
+ * Bucket disimpan di cache terbatas (rate-limit.max-buckets) dan dibuang setelah tidak dipakai
+ * selama rate-limit.idle-eviction-seconds; bucket yang dibuat ulang mulai penuh, sama seperti
+ * bucket yang sudah lama diam.
+ */
+@Service
+public class RateLimiter {
+
+    private static final long START = System.nanoTime();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${rate-limit.max-buckets:100000}")
+    private long maxBuckets;
+
+    @Value("${rate-limit.idle-eviction-seconds:600}")
+    private long idleEvictionSeconds;
+
+    private Cache<BucketKey, AtomicLong> buckets;
+
+    @PostConstruct
+    public void init() {
+        buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(idleEvictionSeconds, TimeUnit.SECONDS)
+                .build();
+        meterRegistry.gauge("ratelimit.buckets", buckets, Cache::estimatedSize);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // 0 jika request diterima, selain itu nanodetik sampai token berikutnya tersedia
+    public long acquire(String endpoint, String scope, Object key, double perSecond, int burst) {
+        AtomicLong theoreticalArrival = buckets.get(new BucketKey(endpoint, scope, key), k -> new AtomicLong());
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / perSecond);
+        long capacity = interval * Math.max(burst, 1);
+        while (true) {
+            long now = System.nanoTime() - START;
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + interval;
+            long wait = next - now - capacity;
+            if (wait > 0) {
+                meterRegistry.counter("ratelimit.rejected", "endpoint", endpoint, "scope", scope).increment();
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // Mengembalikan token yang diambil acquire untuk request yang akhirnya ditolak oleh bucket lain.
+    // acquire memajukan TAT tepat satu interval, jadi mundur satu interval membatalkannya
+    public void refund(String endpoint, String scope, Object key, double perSecond) {
+        AtomicLong theoreticalArrival = buckets.getIfPresent(new BucketKey(endpoint, scope, key));
+        if (theoreticalArrival != null) {
+            theoreticalArrival.addAndGet(-(long) (TimeUnit.SECONDS.toNanos(1) / perSecond));
+        }
+    }
+
+    private record BucketKey(String endpoint, String scope, Object key) {}
+}
@@ -0,0 +1,211 @@
+package com.expensetracker.service;
+
+import com.expensetracker.config.CacheConfig;
+import com.expensetracker.entity.Setting;
+import com.expensetracker.repository.SettingRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Settings per user dengan cache read-through dan write-behind.
+ * Semua setting user dimuat dengan satu query ke cache "settings"; pembacaan berikutnya tidak
+ * menyentuh database. Penulisan langsung terlihat di cache, sedangkan ke database dikumpulkan
+ * (penulisan berulang ke key yang sama digabung) lalu di-flush sebagai batch upsert.
+ */
+@Service
+public class SettingService {
+
+    private static final Logger log = LoggerFactory.getLogger(SettingService.class);
+
+    private static final String UPSERT_SQL =
+        "INSERT INTO settings (user_id, setting_key, setting_value) VALUES (?, ?, ?) " +
+        "ON CONFLICT(user_id, setting_key) DO UPDATE SET " +
+        "setting_value = excluded.setting_value, updated_at = CURRENT_TIMESTAMP";
+
+    @Autowired
+    private SettingRepository settingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${settings.flush-interval-ms:500}")
+    private long flushIntervalMs;
+
+    @Value("${settings.max-batch-size:500}")
+    private int maxBatchSize;
+
+    // Nilai yang belum ditulis ke database; dihapus setelah batch-nya ter-commit
+    private final Map<SettingKey, String> pending = new ConcurrentHashMap<>();
+
+    private TransactionTemplate transactionTemplate;
+    private ScheduledExecutorService flusher;
+
+    @PostConstruct
+    public void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "settings-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+        // Sisa perubahan tetap ditulis sebelum aplikasi berhenti
+        flush();
+    }
+
+    public Map<String, String> getSettings(Integer userId) {
+        return Collections.unmodifiableMap(cachedSettings(userId));
+    }
+
+    public Optional<String> getSetting(Integer userId, String key) {
+        return Optional.ofNullable(cachedSettings(userId).get(key));
+    }
+
+    public Map<String, String> updateSettings(Integer userId, Map<String, String> values) {
+        if (values == null || values.isEmpty()) {
+            throw new RuntimeException("No settings given");
+        }
+        values.forEach((key, value) -> {
+            if (key == null || key.trim().isEmpty()) {
+                throw new RuntimeException("Setting key is required");
+            }
+            if (value == null) {
+                throw new RuntimeException("Setting value is required for " + key);
+            }
+        });
+        // Tulisan ke database baru terjadi di flush; user yang tidak ada harus ditolak di sini,
+        // bukan dibuang diam-diam oleh foreign key setelah request dijawab 200
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM users WHERE id = ?)", Boolean.class, userId))) {
+            throw new UserNotFoundException("User not found");
+        }
+
+        Map<String, String> settings = cachedSettings(userId);
+        // Dikunci per user supaya urutan tulisan di pending dan di cache selalu sama
+        synchronized (settings) {
+            values.forEach((key, value) -> {
+                pending.put(new SettingKey(userId, key), value);
+                settings.put(key, value);
+            });
+        }
+        // Kalau map ini sempat dibuang dari cache (expire) di tengah jalan, muat ulang berikutnya
+        // sudah memuat nilai dari pending; map lama jangan sampai tertinggal sebagai versi terbaru
+        Cache.ValueWrapper current = settingsCache().get(userId);
+        if (current != null && current.get() != settings) {
+            settingsCache().evict(userId);
+        }
+        if (pending.size() >= maxBatchSize) {
+            flusher.execute(this::flushQuietly);
+        }
+        return Collections.unmodifiableMap(settings);
+    }
+
+    // Dipanggil saat user dihapus: settings ikut terhapus lewat ON DELETE CASCADE
+    public void evictUser(Integer userId) {
+        pending.keySet().removeIf(key -> key.userId().equals(userId));
+        settingsCache().evict(userId);
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    // Hanya dijalankan oleh thread flusher dan saat shutdown
+    synchronized void flush() {
+        List<Map.Entry<SettingKey, String>> entries = new ArrayList<>(pending.entrySet());
+        for (int from = 0; from < entries.size(); from += maxBatchSize) {
+            List<Map.Entry<SettingKey, String>> batch = entries.subList(from, Math.min(from + maxBatchSize, entries.size()));
+            try {
+                write(batch);
+            } catch (RuntimeException e) {
+                // Satu baris bermasalah tidak boleh menahan yang lain: ulangi satu per satu
+                for (Map.Entry<SettingKey, String> entry : batch) {
+                    try {
+                        write(List.of(entry));
+                    } catch (RuntimeException ex) {
+                        log.warn("Dropping setting {}: {}", entry.getKey(), ex.getMessage());
+                        pending.remove(entry.getKey(), entry.getValue());
+                        // Cache tidak boleh terus menyajikan nilai yang tidak pernah tersimpan
+                        settingsCache().evict(entry.getKey().userId());
+                    }
+                }
+            }
+        }
+    }
+
+    private void write(List<Map.Entry<SettingKey, String>> batch) {
+        List<Object[]> args = new ArrayList<>(batch.size());
+        for (Map.Entry<SettingKey, String> entry : batch) {
+            args.add(new Object[] { entry.getKey().userId(), entry.getKey().settingKey(), entry.getValue() });
+        }
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPSERT_SQL, args));
+        // Nilai yang ditimpa lagi selama flush tetap pending untuk batch berikutnya
+        for (Map.Entry<SettingKey, String> entry : batch) {
+            pending.remove(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Settings flush failed: {}", e.getMessage());
+        }
+    }
+
+    private Map<String, String> cachedSettings(Integer userId) {
+        return settingsCache().get(userId, () -> loadSettings(userId));
+    }
+
+    private Map<String, String> loadSettings(Integer userId) {
+        Map<String, String> settings = new ConcurrentHashMap<>();
+        for (Setting setting : settingRepository.findByUserId(userId)) {
+            settings.put(setting.getSettingKey(), setting.getSettingValue() != null ? setting.getSettingValue() : "");
+        }
+        // Tulisan yang belum di-flush lebih baru daripada isi database
+        pending.forEach((key, value) -> {
+            if (key.userId().equals(userId)) {
+                settings.put(key.settingKey(), value);
+            }
+        });
+        return settings;
+    }
+
+    private Cache settingsCache() {
+        return cacheManager.getCache(CacheConfig.SETTINGS);
+    }
+
+    private record SettingKey(Integer userId, String settingKey) {}
+}
@@ -0,0 +1,127 @@
+package com.expensetracker.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Daftar JWT yang dicabut sebelum expired, dicek di setiap request dengan dua lookup hash map.
+ * Per token (logout) berdasarkan jti, dan per user (dihapus, dinonaktifkan, ganti password/role):
+ * semua token user itu yang diterbitkan sebelum milidetik pencabutan ditolak.
+ * Ditulis juga ke SQLite supaya tetap berlaku setelah restart; entri dibuang setelah tokennya
+ * pasti sudah expired. Dimuat sebelum web server menerima request, jadi token yang dicabut
+ * tidak pernah lolos di awal setelah restart.
+ */
+@Service
+@DependsOn("schemaUpgrade")
+public class TokenRevocationService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${jwt.expiration}")
+    private long expirationMs;
+
+    // jti -> exp token (epoch detik)
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    // userId -> token yang diterbitkan sebelum nilai ini (epoch milidetik) ditolak
+    private final Map<Integer, Long> revokedUsers = new ConcurrentHashMap<>();
+
+    // Waktu terakhir yang dibagikan nextTimestamp (epoch milidetik)
+    private final AtomicLong lastTimestamp = new AtomicLong();
+
+    private ScheduledExecutorService purger;
+
+    // Setelah SchemaUpgrade membuat tabelnya, sebelum web server start
+    @PostConstruct
+    public void start() {
+        purge();
+        jdbcTemplate.query("SELECT jti, expires_at FROM revoked_tokens",
+                rs -> { revokedTokens.put(rs.getString(1), rs.getLong(2)); });
+        jdbcTemplate.query("SELECT user_id, revoked_before FROM revoked_user_tokens", rs -> {
+            revokedUsers.put(rs.getInt(1), rs.getLong(2));
+            lastTimestamp.accumulateAndGet(rs.getLong(2), Math::max);
+        });
+        log.info("Loaded {} revoked tokens and {} revoked users", revokedTokens.size(), revokedUsers.size());
+
+        purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "token-revocation-purger");
+            thread.setDaemon(true);
+            return thread;
+        });
+        purger.scheduleWithFixedDelay(this::purgeQuietly, 1, 1, TimeUnit.HOURS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (purger != null) {
+            purger.shutdownNow();
+        }
+    }
+
+    public boolean isRevoked(JwtService.VerifiedToken token) {
+        if (revokedTokens.containsKey(token.tokenId())) {
+            return true;
+        }
+        Long revokedBefore = revokedUsers.get(token.userId());
+        if (revokedBefore == null) {
+            return false;
+        }
+        // iat_ms dan revoked_before dari nextTimestamp tidak pernah sama, jadi perbandingan strict
+        // memisahkan token sebelum dan sesudah pencabutan. Token lama tanpa iat_ms hanya tahu awal
+        // detik iat-nya dan ditolak jika detik itu tidak setelah pencabutan (seperti perbandingan per detik dulu)
+        return token.preciseIssuedAt() ? token.issuedAt() < revokedBefore : token.issuedAt() <= revokedBefore;
+    }
+
+    // Epoch milidetik yang naik ketat, dipakai untuk iat_ms token dan revoked_before
+    public long nextTimestamp() {
+        return lastTimestamp.updateAndGet(last -> Math.max(last + 1, System.currentTimeMillis()));
+    }
+
+    public void revoke(JwtService.VerifiedToken token) {
+        jdbcTemplate.update("INSERT OR IGNORE INTO revoked_tokens (jti, expires_at) VALUES (?, ?)",
+                token.tokenId(), token.expiresAt());
+        revokedTokens.put(token.tokenId(), token.expiresAt());
+    }
+
+    public void revokeUser(Integer userId) {
+        long now = nextTimestamp();
+        jdbcTemplate.update("INSERT INTO revoked_user_tokens (user_id, revoked_before) VALUES (?, ?) " +
+                "ON CONFLICT(user_id) DO UPDATE SET revoked_before = excluded.revoked_before", userId, now);
+        revokedUsers.put(userId, now);
+    }
+
+    // Token dengan exp lewat sudah ditolak oleh verifikasi JWT, jadi entrinya tidak diperlukan lagi
+    void purge() {
+        long nowMs = System.currentTimeMillis();
+        long now = nowMs / 1000;
+        long oldestValidIssue = nowMs - expirationMs;
+        jdbcTemplate.update("DELETE FROM revoked_tokens WHERE expires_at < ?", now);
+        jdbcTemplate.update("DELETE FROM revoked_user_tokens WHERE revoked_before < ?", oldestValidIssue);
+        revokedTokens.values().removeIf(expiresAt -> expiresAt < now);
+        revokedUsers.values().removeIf(revokedBefore -> revokedBefore < oldestValidIssue);
+    }
+
+    private void purgeQuietly() {
+        try {
+            purge();
+        } catch (RuntimeException e) {
+            log.warn("Purging revoked tokens failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.CategoryTotal;
+import com.expensetracker.dto.PeriodTotal;
+import com.expensetracker.dto.RollupVerification;
+import com.expensetracker.dto.TransactionSummary;
+import com.expensetracker.entity.Money;
+import com.expensetracker.entity.Transaction;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rollup bulanan per (user_id, category_id, type, YYYY-MM) di tabel transaction_monthly_rollup.
+ * total disimpan dalam satuan terkecil (INTEGER), sama dengan transactions.amount.
+ * Diperbarui secara incremental oleh TransactionService di dalam transaksi DB yang sama,
+ * sehingga query ringkasan bulanan cukup membaca O(bulan) baris, bukan O(transaksi).
+ */
+@Service
+public class TransactionRollupService {
+
+    private static final String UPSERT_SQL =
+        "INSERT INTO transaction_monthly_rollup (user_id, category_id, type, month, total, txn_count) " +
+        "VALUES (?, ?, ?, ?, ?, ?) " +
+        "ON CONFLICT(user_id, category_id, type, month) DO UPDATE SET " +
+        "total = total + excluded.total, txn_count = txn_count + excluded.txn_count";
+
+    private static final String PRUNE_SQL =
+        "DELETE FROM transaction_monthly_rollup " +
+        "WHERE user_id = ? AND category_id = ? AND type = ? AND month = ? AND txn_count <= 0";
+
+    private static final String AGGREGATE_SQL =
+        // transaction_date epoch day; + 2440587.5 mengubahnya ke julian day untuk strftime
+        "SELECT user_id, category_id, type, strftime('%Y-%m', transaction_date + 2440587.5) AS month, " +
+        "SUM(amount) AS total, COUNT(*) AS txn_count " +
+        "FROM transactions GROUP BY user_id, category_id, type, month";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Harus dipanggil dari dalam transaksi penulis (create/update/delete) agar atomik
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(Integer userId, Integer categoryId, String type, LocalDate transactionDate,
+                      long amountDelta, int countDelta) {
+        String month = YearMonth.from(transactionDate).toString();
+        jdbcTemplate.update(UPSERT_SQL, userId, categoryId, type, month, amountDelta, countDelta);
+        if (countDelta < 0) {
+            jdbcTemplate.update(PRUNE_SQL, userId, categoryId, type, month);
+        }
+    }
+
+    // Untuk insert batch: delta digabung per grup dulu, lalu ditulis dengan satu JDBC batch
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyBatch(List<Transaction> inserted) {
+        Map<String, Object[]> groups = new LinkedHashMap<>();
+        for (Transaction t : inserted) {
+            String month = YearMonth.from(t.getTransactionDate()).toString();
+            Object[] row = groups.computeIfAbsent(groupKey(t.getUserId(), t.getCategoryId(), t.getType(), month),
+                    key -> new Object[] { t.getUserId(), t.getCategoryId(), t.getType(), month, 0L, 0 });
+            row[4] = (Long) row[4] + t.getAmount();
+            row[5] = (Integer) row[5] + 1;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, new ArrayList<>(groups.values()));
+    }
+
+    // Bulk delete: kontribusi semua transaksi yang cocok dikeluarkan dengan satu upsert agregat per grup,
+    // lalu grup yang kosong dibuang. Dipanggil sebelum DELETE di transaksi yang sama; minimal userId
+    // atau categoryId diisi, tanggal boleh null
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void subtractMatching(Integer userId, Integer categoryId, LocalDate startDate, LocalDate endDate) {
+        StringBuilder where = new StringBuilder(" WHERE 1 = 1");
+        StringBuilder pruneWhere = new StringBuilder(" WHERE txn_count <= 0");
+        List<Object> args = new ArrayList<>();
+        List<Object> pruneArgs = new ArrayList<>();
+        if (userId != null) {
+            where.append(" AND user_id = ?");
+            pruneWhere.append(" AND user_id = ?");
+            args.add(userId);
+            pruneArgs.add(userId);
+        }
+        if (categoryId != null) {
+            where.append(" AND category_id = ?");
+            pruneWhere.append(" AND category_id = ?");
+            args.add(categoryId);
+            pruneArgs.add(categoryId);
+        }
+        if (startDate != null) {
+            where.append(" AND transaction_date >= ?");
+            args.add(startDate.toEpochDay());
+        }
+        if (endDate != null) {
+            where.append(" AND transaction_date <= ?");
+            args.add(endDate.toEpochDay());
+        }
+        // WHERE di SELECT wajib ada supaya ON CONFLICT tidak dibaca sebagai bagian dari join
+        jdbcTemplate.update(
+            "INSERT INTO transaction_monthly_rollup (user_id, category_id, type, month, total, txn_count) " +
+            "SELECT user_id, category_id, type, strftime('%Y-%m', transaction_date + 2440587.5) AS month, " +
+            "-SUM(amount), -COUNT(*) FROM transactions" + where +
+            " GROUP BY user_id, category_id, type, month " +
+            "ON CONFLICT(user_id, category_id, type, month) DO UPDATE SET " +
+            "total = total + excluded.total, txn_count = txn_count + excluded.txn_count", args.toArray());
+        jdbcTemplate.update("DELETE FROM transaction_monthly_rollup" + pruneWhere, pruneArgs.toArray());
+    }
+
+    // Ringkasan bulanan dari rollup; startMonth/endMonth (YYYY-MM) boleh null
+    @Transactional(readOnly = true)
+    public TransactionSummary getMonthlySummary(Integer userId, String startMonth, String endMonth,
+                                                String startDate, String endDate) {
+        StringBuilder where = new StringBuilder(" WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (userId != null) {
+            where.append(" AND user_id = ?");
+            args.add(userId);
+        }
+        if (startMonth != null) {
+            where.append(" AND month >= ?");
+            args.add(startMonth);
+        }
+        if (endMonth != null) {
+            where.append(" AND month <= ?");
+            args.add(endMonth);
+        }
+
+        TransactionSummary summary = new TransactionSummary(userId, startDate, endDate, "month");
+        long[] income = {0};
+        long[] expense = {0};
+
+        String categorySql = "SELECT category_id, type, SUM(total) AS total, SUM(txn_count) AS cnt " +
+                             "FROM transaction_monthly_rollup" + where +
+                             " GROUP BY category_id, type ORDER BY total DESC";
+        jdbcTemplate.query(categorySql, rs -> {
+            CategoryTotal row = new CategoryTotal(rs.getInt("category_id"), rs.getString("type"),
+                                                  Money.toMajor(rs.getLong("total")), rs.getLong("cnt"));
+            summary.getByCategory().add(row);
+            summary.setTransactionCount(summary.getTransactionCount() + row.getCount());
+            if ("INCOME".equals(row.getType())) {
+                income[0] += rs.getLong("total");
+            } else if ("EXPENSE".equals(row.getType())) {
+                expense[0] += rs.getLong("total");
+            }
+        }, args.toArray());
+        summary.setTotalIncome(Money.toMajor(income[0]));
+        summary.setTotalExpense(Money.toMajor(expense[0]));
+
+        String periodSql = "SELECT month, type, SUM(total) AS total FROM transaction_monthly_rollup" + where +
+                           " GROUP BY month, type ORDER BY month";
+        Map<String, PeriodTotal> periods = new LinkedHashMap<>();
+        jdbcTemplate.query(periodSql, rs -> {
+            PeriodTotal period = periods.computeIfAbsent(rs.getString("month"), PeriodTotal::new);
+            if ("INCOME".equals(rs.getString("type"))) {
+                period.setIncome(Money.toMajor(rs.getLong("total")));
+            } else if ("EXPENSE".equals(rs.getString("type"))) {
+                period.setExpense(Money.toMajor(rs.getLong("total")));
+            }
+        }, args.toArray());
+        summary.setByPeriod(new ArrayList<>(periods.values()));
+
+        return summary;
+    }
+
+    // Hitung ulang seluruh rollup dari tabel transactions
+    @Transactional
+    public int rebuild() {
+        jdbcTemplate.update("DELETE FROM transaction_monthly_rollup");
+        return jdbcTemplate.update(
+            "INSERT INTO transaction_monthly_rollup (user_id, category_id, type, month, total, txn_count) " +
+            AGGREGATE_SQL);
+    }
+
+    // Bandingkan rollup dengan agregat sebenarnya tanpa mengubah apa pun
+    @Transactional(readOnly = true)
+    public RollupVerification verify() {
+        Map<String, long[]> expected = new HashMap<>();
+        jdbcTemplate.query(AGGREGATE_SQL, rs -> {
+            expected.put(groupKey(rs.getInt("user_id"), rs.getInt("category_id"), rs.getString("type"), rs.getString("month")),
+                         new long[] { rs.getLong("total"), rs.getLong("txn_count") });
+        });
+
+        RollupVerification result = new RollupVerification();
+        result.setExpectedGroups(expected.size());
+        long[] rollupGroups = {0};
+        jdbcTemplate.query("SELECT user_id, category_id, type, month, total, txn_count FROM transaction_monthly_rollup", rs -> {
+            rollupGroups[0]++;
+            String key = groupKey(rs.getInt("user_id"), rs.getInt("category_id"), rs.getString("type"), rs.getString("month"));
+            long[] actual = { rs.getLong("total"), rs.getLong("txn_count") };
+            long[] want = expected.remove(key);
+            if (want == null) {
+                result.getMismatches().add(describe(key, null, actual));
+            } else if (want[0] != actual[0] || want[1] != actual[1]) {
+                result.getMismatches().add(describe(key, want, actual));
+            }
+        });
+        // Grup yang ada di transactions tapi tidak ada di rollup
+        expected.forEach((key, want) -> result.getMismatches().add(describe(key, want, null)));
+        result.setRollupGroups(rollupGroups[0]);
+        return result;
+    }
+
+    private String groupKey(int userId, int categoryId, String type, String month) {
+        return userId + "/" + categoryId + "/" + type + "/" + month;
+    }
+
+    private String describe(String key, long[] expected, long[] actual) {
+        return key + ": expected=" + format(expected) + ", actual=" + format(actual);
+    }
+
+    private String format(long[] values) {
+        if (values == null) {
+            return "missing";
+        }
+        return "total " + Money.toMajor(values[0]) + " count " + values[1];
+    }
+}
@@ -1,53 +1,511 @@
 package com.expensetracker.service;
 
+import com.expensetracker.dto.BatchInsertResult;
+import com.expensetracker.dto.BatchRowError;
+import com.expensetracker.dto.CategoryTotal;
+import com.expensetracker.dto.CursorPage;
+import com.expensetracker.dto.PeriodTotal;
+import com.expensetracker.dto.RollupVerification;
+import com.expensetracker.dto.TransactionSummary;
+import com.expensetracker.dto.TransactionView;
+import com.expensetracker.entity.Money;
+import com.expensetracker.entity.SqliteTimestampConverter;
 import com.expensetracker.entity.Transaction;
 import com.expensetracker.repository.TransactionRepository;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.sqlite.SQLiteErrorCode;
+import org.sqlite.SQLiteException;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @Service
 public class TransactionService {
     
+    private static final Logger log = LoggerFactory.getLogger(TransactionService.class);
+    
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    
+    public static final int DEFAULT_SEARCH_LIMIT = 20;
+    public static final int MAX_SEARCH_LIMIT = 100;
+    
+    // Jumlah kata maksimal per query pencarian, membatasi biaya satu query FTS
+    private static final int MAX_SEARCH_TERMS = 8;
+    
+    // Ranking relevansi dilakukan atas sejumlah kecocokan terbaru ini saja (lihat TransactionRepository)
+    private static final int SEARCH_CANDIDATES = 1000;
+    
+    private static final Pattern SEARCH_TERM = Pattern.compile("[\\p{L}\\p{N}]+");
+    
+    // Batas jumlah baris per request batch import
+    public static final int MAX_BATCH_SIZE = 50000;
+    
+    private static final String INSERT_SQL =
+        "INSERT INTO transactions (user_id, type, amount, category_id, description, transaction_date) " +
+        "VALUES (?, ?, ?, ?, ?, ?)";
+    
+    private static final String INSERT_RETURNING_SQL = INSERT_SQL + " RETURNING id, created_at, updated_at";
+    
+    // Batch mengisi timestamp sendiri (format sama dengan CURRENT_TIMESTAMP SQLite, UTC) agar
+    // entity yang dikembalikan lengkap tanpa membaca ulang baris yang baru ditulis
+    private static final String INSERT_BATCH_SQL =
+        "INSERT INTO transactions (user_id, type, amount, category_id, description, transaction_date, created_at, updated_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    // Jumlah baris per fetch dari cursor JDBC dan per flush ke response saat export
+    private static final int EXPORT_FETCH_SIZE = 500;
+    
+    private static final String EXPORT_COLUMNS =
+        "id, user_id, type, amount, category_id, description, transaction_date, created_at, updated_at";
+    
     @Autowired
     private TransactionRepository transactionRepository;
     
     @Autowired
     private JdbcTemplate jdbcTemplate;
     
-    public List<Transaction> getAllTransactions() {
-        return transactionRepository.findAll();
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private TransactionRollupService transactionRollupService;
+    
+    @Autowired
+    private ChangeVersionService changeVersionService;
+    
+    @Autowired
+    private BudgetTracker budgetTracker;
+    
+    public List<TransactionView> getAllTransactions() {
+        return transactionRepository.findAllViews();
     }
     
     public Transaction getTransactionById(Integer id) {
         return transactionRepository.findById(id).orElse(null);
     }
     
-    public List<Transaction> getTransactionsByUser(Integer userId) {
-        return transactionRepository.findByUserId(userId);
+    public List<TransactionView> getTransactionsByUser(Integer userId) {
+        return transactionRepository.findViewsByUserId(userId);
+    }
+    
+    public List<TransactionView> getTransactionsByCategory(Integer categoryId) {
+        return transactionRepository.findViewsByCategoryId(categoryId);
+    }
+    
+    public List<TransactionView> getTransactionsByType(String type) {
+        return transactionRepository.findViewsByType(type);
+    }
+    
+    public List<TransactionView> getTransactionsByUserAndType(Integer userId, String type) {
+        return transactionRepository.findViewsByUserIdAndType(userId, type);
+    }
+    
+    public List<TransactionView> getTransactionsByUserAndDateRange(Integer userId, LocalDate startDate, LocalDate endDate) {
+        return transactionRepository.findViewsByUserIdAndDateRange(userId, startDate, endDate);
+    }
+    
+    // Keyset pagination: biaya halaman ke-N sama dengan halaman pertama karena tidak ada OFFSET
+    public CursorPage<TransactionView> getTransactionsPage(String cursor, Integer limit) {
+        int size = normalizePageSize(limit);
+        // Ambil satu baris ekstra untuk tahu apakah masih ada halaman berikutnya
+        Pageable pageable = PageRequest.of(0, size + 1);
+        
+        List<TransactionView> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = transactionRepository.findFirstPage(pageable);
+        } else {
+            CursorPosition position = decodeCursor(cursor);
+            rows = transactionRepository.findPageAfter(position.date(), position.id(), pageable);
+        }
+        return toPage(rows, size);
+    }
+    
+    public CursorPage<TransactionView> getTransactionsPageByUser(Integer userId, String cursor, Integer limit) {
+        int size = normalizePageSize(limit);
+        Pageable pageable = PageRequest.of(0, size + 1);
+        
+        List<TransactionView> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = transactionRepository.findFirstPageByUserId(userId, pageable);
+        } else {
+            CursorPosition position = decodeCursor(cursor);
+            rows = transactionRepository.findPageByUserIdAfter(userId, position.date(), position.id(), pageable);
+        }
+        return toPage(rows, size);
+    }
+    
+    // Pencarian full-text atas description, urut relevansi (bm25), opsional dibatasi satu user
+    @Transactional(readOnly = true)
+    public List<TransactionView> searchTransactions(String query, Integer userId, Integer limit) {
+        int size = limit == null ? DEFAULT_SEARCH_LIMIT : limit;
+        if (size <= 0) {
+            throw new RuntimeException("Limit must be positive");
+        }
+        String match = toMatchExpression(query, userId);
+        if (match == null) {
+            throw new RuntimeException("Search query must contain at least one word");
+        }
+        List<Integer> ids = transactionRepository.searchIdsByDescription(match, SEARCH_CANDIDATES,
+                                                                         Math.min(size, MAX_SEARCH_LIMIT));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // IN tidak menjaga urutan; kembalikan ke urutan ranking
+        Map<Integer, TransactionView> byId = new HashMap<>();
+        for (TransactionView view : transactionRepository.findViewsByIdIn(ids)) {
+            byId.put(view.id(), view);
+        }
+        List<TransactionView> results = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            TransactionView view = byId.get(id);
+            if (view != null) {
+                results.add(view);
+            }
+        }
+        return results;
+    }
+    
+    // Input bebas dari user diubah menjadi query FTS5 yang aman: setiap kata menjadi phrase "..."
+    // (operator dan tanda baca FTS5 tidak pernah ikut), kata >= 2 huruf dicocokkan sebagai prefix.
+    // Semua kata harus ada (AND); user_id dicocokkan di kolom FTS-nya sendiri.
+    static String toMatchExpression(String query, Integer userId) {
+        if (query == null) {
+            return null;
+        }
+        StringBuilder terms = new StringBuilder();
+        Matcher matcher = SEARCH_TERM.matcher(query);
+        int count = 0;
+        while (matcher.find() && count < MAX_SEARCH_TERMS) {
+            String term = matcher.group();
+            if (count++ > 0) {
+                terms.append(' ');
+            }
+            terms.append('"').append(term).append('"');
+            if (term.length() >= 2) {
+                terms.append('*');
+            }
+        }
+        if (count == 0) {
+            return null;
+        }
+        String description = "description : (" + terms + ")";
+        return userId != null ? "user_id : \"" + userId + "\" AND " + description : description;
+    }
+    
+    // Ringkasan dashboard dihitung dengan GROUP BY di SQLite; hanya hasil agregat yang dikirim ke client
+    @Transactional(readOnly = true)
+    public TransactionSummary getSummary(Integer userId, String startDate, String endDate, String granularity) {
+        String bucket = granularity == null ? "month" : granularity.toLowerCase();
+        if (!"month".equals(bucket) && !"day".equals(bucket)) {
+            throw new RuntimeException("Granularity must be 'month' or 'day'");
+        }
+        LocalDate start = parseDate(startDate, "Start date");
+        LocalDate end = parseDate(endDate, "End date");
+        
+        // Rentang yang pas per bulan penuh cukup dibaca dari rollup (O(bulan), bukan O(transaksi))
+        if ("month".equals(bucket) && isMonthAligned(start, end)) {
+            return transactionRollupService.getMonthlySummary(userId,
+                    start != null ? YearMonth.from(start).toString() : null,
+                    end != null ? YearMonth.from(end).toString() : null,
+                    startDate, endDate);
+        }
+        
+        StringBuilder where = new StringBuilder(" WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (userId != null) {
+            where.append(" AND user_id = ?");
+            args.add(userId);
+        }
+        if (start != null) {
+            where.append(" AND transaction_date >= ?");
+            args.add(start.toEpochDay());
+        }
+        if (end != null) {
+            where.append(" AND transaction_date <= ?");
+            args.add(end.toEpochDay());
+        }
+        
+        TransactionSummary summary = new TransactionSummary(userId, startDate, endDate, bucket);
+        long[] income = {0};
+        long[] expense = {0};
+        
+        // Per kategori; total pemasukan/pengeluaran diturunkan dari hasil ini tanpa query tambahan
+        String categorySql = "SELECT category_id, type, SUM(amount) AS total, COUNT(*) AS cnt FROM transactions" +
+                             where + " GROUP BY category_id, type ORDER BY total DESC";
+        jdbcTemplate.query(categorySql, rs -> {
+            CategoryTotal row = new CategoryTotal(rs.getInt("category_id"), rs.getString("type"),
+                                                  Money.toMajor(rs.getLong("total")), rs.getLong("cnt"));
+            summary.getByCategory().add(row);
+            summary.setTransactionCount(summary.getTransactionCount() + row.getCount());
+            if ("INCOME".equals(row.getType())) {
+                income[0] += rs.getLong("total");
+            } else if ("EXPENSE".equals(row.getType())) {
+                expense[0] += rs.getLong("total");
+            }
+        }, args.toArray());
+        summary.setTotalIncome(Money.toMajor(income[0]));
+        summary.setTotalExpense(Money.toMajor(expense[0]));
+        
+        // Per bulan/hari untuk data chart: SQLite cukup GROUP BY tanggal (integer),
+        // pengelompokan ke bulan dilakukan di sini dengan akumulator long yang eksak
+        String periodSql = "SELECT transaction_date, type, SUM(amount) AS total FROM transactions" + where +
+                           " GROUP BY transaction_date, type ORDER BY transaction_date";
+        boolean monthly = "month".equals(bucket);
+        Map<String, long[]> periods = new LinkedHashMap<>();
+        jdbcTemplate.query(periodSql, rs -> {
+            LocalDate date = LocalDate.ofEpochDay(rs.getLong("transaction_date"));
+            String key = monthly ? YearMonth.from(date).toString() : date.toString();
+            long[] totals = periods.computeIfAbsent(key, k -> new long[2]);
+            if ("INCOME".equals(rs.getString("type"))) {
+                totals[0] += rs.getLong("total");
+            } else if ("EXPENSE".equals(rs.getString("type"))) {
+                totals[1] += rs.getLong("total");
+            }
+        }, args.toArray());
+        List<PeriodTotal> byPeriod = new ArrayList<>(periods.size());
+        periods.forEach((key, totals) -> {
+            PeriodTotal period = new PeriodTotal(key);
+            period.setIncome(Money.toMajor(totals[0]));
+            period.setExpense(Money.toMajor(totals[1]));
+            byPeriod.add(period);
+        });
+        summary.setByPeriod(byPeriod);
+        
+        return summary;
+    }
+    
+    private boolean isMonthAligned(LocalDate start, LocalDate end) {
+        if (start != null && start.getDayOfMonth() != 1) {
+            return false;
+        }
+        return end == null || end.getDayOfMonth() == end.lengthOfMonth();
+    }
+    
+    private LocalDate parseDate(String value, String field) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new RuntimeException(field + " must be in YYYY-MM-DD format");
+        }
+    }
+    
+    // Export streaming: baris dibaca dari cursor JDBC forward-only dan langsung ditulis ke output,
+    // tanpa membuat entity atau List, sehingga heap tetap datar berapa pun jumlah barisnya.
+    @Transactional(readOnly = true)
+    public void exportTransactionsAsNdjson(Integer userId, OutputStream out) throws IOException {
+        JsonGenerator json = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        // Jangan tutup OutputStream milik response, cukup flush
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        json.setRootValueSeparator(null);
+        
+        int[] count = {0};
+        streamTransactions(userId, rs -> {
+            try {
+                json.writeStartObject();
+                json.writeNumberField("id", rs.getInt("id"));
+                json.writeNumberField("userId", rs.getInt("user_id"));
+                json.writeStringField("type", rs.getString("type"));
+                json.writeNumberField("amount", Money.toMajor(rs.getLong("amount")));
+                json.writeNumberField("categoryId", rs.getInt("category_id"));
+                json.writeStringField("description", rs.getString("description"));
+                json.writeStringField("transactionDate", LocalDate.ofEpochDay(rs.getLong("transaction_date")).toString());
+                json.writeStringField("createdAt", rs.getString("created_at"));
+                json.writeStringField("updatedAt", rs.getString("updated_at"));
+                json.writeEndObject();
+                json.writeRaw('\n');
+                if (++count[0] % EXPORT_FETCH_SIZE == 0) {
+                    json.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        json.close();
+    }
+    
+    @Transactional(readOnly = true)
+    public void exportTransactionsAsCsv(Integer userId, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write("id,userId,type,amount,categoryId,description,transactionDate,createdAt,updatedAt\n");
+        // Header dikirim sebelum query selesai supaya client langsung menerima byte pertama
+        writer.flush();
+        
+        int[] count = {0};
+        streamTransactions(userId, rs -> {
+            try {
+                writer.write(Integer.toString(rs.getInt("id")));
+                writer.write(',');
+                writer.write(Integer.toString(rs.getInt("user_id")));
+                writer.write(',');
+                writer.write(csvField(rs.getString("type")));
+                writer.write(',');
+                writer.write(Double.toString(Money.toMajor(rs.getLong("amount"))));
+                writer.write(',');
+                writer.write(Integer.toString(rs.getInt("category_id")));
+                writer.write(',');
+                writer.write(csvField(rs.getString("description")));
+                writer.write(',');
+                writer.write(LocalDate.ofEpochDay(rs.getLong("transaction_date")).toString());
+                writer.write(',');
+                writer.write(csvField(rs.getString("created_at")));
+                writer.write(',');
+                writer.write(csvField(rs.getString("updated_at")));
+                writer.write('\n');
+                if (++count[0] % EXPORT_FETCH_SIZE == 0) {
+                    writer.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+    
+    private void streamTransactions(Integer userId, RowCallbackHandler handler) {
+        String sql = "SELECT " + EXPORT_COLUMNS + " FROM transactions" +
+                     (userId != null ? " WHERE user_id = ?" : "") +
+                     " ORDER BY id";
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(EXPORT_FETCH_SIZE);
+            if (userId != null) {
+                ps.setInt(1, userId);
+            }
+            return ps;
+        }, handler);
+    }
+    
+    private String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
     }
     
-    public List<Transaction> getTransactionsByCategory(Integer categoryId) {
-        return transactionRepository.findByCategoryId(categoryId);
+    private int normalizePageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (limit <= 0) {
+            throw new RuntimeException("Limit must be positive");
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
     }
     
-    public List<Transaction> getTransactionsByType(String type) {
-        return transactionRepository.findByType(type);
+    private CursorPage<TransactionView> toPage(List<TransactionView> rows, int size) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<TransactionView> items = rows.subList(0, size);
+        TransactionView last = items.get(size - 1);
+        return new CursorPage<>(items, encodeCursor(last.transactionDate(), last.id()));
     }
     
-    public List<Transaction> getTransactionsByUserAndType(Integer userId, String type) {
-        return transactionRepository.findByUserIdAndType(userId, type);
+    // Cursor = base64url("transaction_date|id") dari baris terakhir halaman sebelumnya
+    private String encodeCursor(LocalDate transactionDate, Integer id) {
+        String raw = transactionDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
     }
     
-    public List<Transaction> getTransactionsByUserAndDateRange(Integer userId, String startDate, String endDate) {
-        return transactionRepository.findByUserIdAndTransactionDateBetween(userId, startDate, endDate);
+    private CursorPosition decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Missing separator");
+            }
+            return new CursorPosition(LocalDate.parse(raw.substring(0, separator)),
+                                      Integer.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
     }
     
+    private record CursorPosition(LocalDate date, Integer id) {}
+    
     @Transactional
     public Transaction createTransaction(Transaction transaction) {
+        prepareNewTransaction(transaction);
+        
+        // Satu statement: id dan timestamp default dari database langsung dikembalikan, tanpa
+        // query last_insert_rowid() terpisah yang bergantung pada state koneksi
+        Transaction created;
+        try {
+            created = jdbcTemplate.queryForObject(INSERT_RETURNING_SQL, (rs, rowNum) -> {
+                transaction.setId(rs.getInt("id"));
+                transaction.setCreatedAt(SqliteTimestampConverter.parse(rs.getString("created_at")));
+                transaction.setUpdatedAt(SqliteTimestampConverter.parse(rs.getString("updated_at")));
+                return transaction;
+            },
+                transaction.getUserId(),
+                transaction.getType(),
+                transaction.getAmount(),
+                transaction.getCategoryId(),
+                transaction.getDescription(),
+                transaction.getTransactionDate().toEpochDay()
+            );
+        } catch (DataAccessException e) {
+            // Spring tidak menerjemahkan kode error SQLite, jadi foreign key dikenali dari SQLiteException
+            if (e.getMostSpecificCause() instanceof SQLiteException sqlite
+                    && sqlite.getResultCode() == SQLiteErrorCode.SQLITE_CONSTRAINT_FOREIGNKEY) {
+                throw new RuntimeException("User or category not found");
+            }
+            throw e;
+        }
+        
+        // Rollup bulanan diperbarui di transaksi DB yang sama
+        transactionRollupService.apply(created.getUserId(), created.getCategoryId(), created.getType(),
+                                       created.getTransactionDate(), created.getAmount(), 1);
+        budgetTracker.recordSpend(created.getUserId(), created.getCategoryId(), created.getType(),
+                                  created.getTransactionDate(), created.getAmount());
+        changeVersionService.transactionsChanged(created.getUserId());
+        return created;
+    }
+    
+    private void validateNewTransaction(Transaction transaction) {
         // Validasi input
         if (transaction.getAmount() == null || transaction.getAmount() <= 0) {
             throw new RuntimeException("Transaction amount must be positive");
@@ -64,77 +522,123 @@ public class TransactionService {
         if (transaction.getDescription() == null || transaction.getDescription().trim().isEmpty()) {
             throw new RuntimeException("Description is required");
         }
-        if (transaction.getTransactionDate() == null || transaction.getTransactionDate().trim().isEmpty()) {
+        // Format YYYY-MM-DD sudah diperiksa saat JSON dibaca ke LocalDate
+        if (transaction.getTransactionDate() == null) {
             throw new RuntimeException("Transaction date is required");
         }
-        
-        // Pastikan type dalam format yang benar
-        String type = transaction.getType().toUpperCase().trim();
-        
-        // Pastikan description tidak kosong
-        String description = transaction.getDescription().trim();
-        
-        // Pastikan transaction date dalam format YYYY-MM-DD
-        if (!transaction.getTransactionDate().matches("\\d{4}-\\d{2}-\\d{2}")) {
-            throw new RuntimeException("Transaction date must be in YYYY-MM-DD format");
+    }
+    
+    // Import massal: semua baris valid ditulis dengan satu JDBC batch di dalam satu transaksi DB,
+    // jadi hanya ada satu commit (satu fsync) untuk seluruh request.
+    @Transactional
+    public BatchInsertResult createTransactionsBatch(List<Transaction> transactions) {
+        if (transactions == null || transactions.isEmpty()) {
+            throw new RuntimeException("At least one transaction is required");
+        }
+        if (transactions.size() > MAX_BATCH_SIZE) {
+            throw new RuntimeException("Batch size must not exceed " + MAX_BATCH_SIZE);
         }
         
-        try {
-            // OPSI 1: Gunakan native query untuk INSERT (sudah berhasil)
-            transactionRepository.insertTransaction(
-                transaction.getUserId(),
-                type,
-                transaction.getAmount(),
-                transaction.getCategoryId(),
-                description,
-                transaction.getTransactionDate()
-            );
-            
-            // Dapatkan ID yang baru di-insert
-            Integer newId = transactionRepository.getLastInsertId();
-            
-            // Set ID dan return transaction yang lengkap
-            transaction.setId(newId);
-            transaction.setType(type);
-            transaction.setDescription(description);
-            
-            return transaction;
-            
-        } catch (Exception e) {
-            // OPSI 2: Fallback ke JdbcTemplate jika native query gagal
+        BatchInsertResult result = new BatchInsertResult();
+        List<Transaction> accepted = new ArrayList<>();
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        for (int i = 0; i < transactions.size(); i++) {
+            Transaction transaction = transactions.get(i);
+            result.getIds().add(null);
             try {
-                System.out.println("Native query failed, trying JdbcTemplate fallback...");
-                return createTransactionWithJdbcTemplate(transaction, type, description);
-            } catch (Exception jdbcEx) {
-                throw new RuntimeException("Both native query and JdbcTemplate failed: " + e.getMessage() + " | " + jdbcEx.getMessage(), e);
+                if (transaction == null) {
+                    throw new RuntimeException("Transaction is required");
+                }
+                prepareNewTransaction(transaction);
+            } catch (RuntimeException e) {
+                result.getErrors().add(new BatchRowError(i, e.getMessage()));
+                continue;
+            }
+            accepted.add(transaction);
+            acceptedIndexes.add(i);
+        }
+        rejectMissingReferences(accepted, acceptedIndexes, result);
+        if (accepted.isEmpty()) {
+            return result;
+        }
+        
+        insertPreparedBatch(accepted);
+        for (int k = 0; k < accepted.size(); k++) {
+            result.getIds().set(acceptedIndexes.get(k), accepted.get(k).getId());
+        }
+        result.setInsertedCount(accepted.size());
+        return result;
+    }
+    
+    // Foreign key ditegakkan SQLite: satu user/kategori yang tidak ada akan menggagalkan seluruh batch,
+    // jadi keberadaannya dicek dulu dengan satu query per tabel dan barisnya dilaporkan sebagai error
+    private void rejectMissingReferences(List<Transaction> accepted, List<Integer> acceptedIndexes,
+                                         BatchInsertResult result) {
+        Set<Integer> users = existingIds("users", accepted.stream().map(Transaction::getUserId).toList());
+        Set<Integer> categories = existingIds("categories", accepted.stream().map(Transaction::getCategoryId).toList());
+        for (int k = accepted.size() - 1; k >= 0; k--) {
+            Transaction transaction = accepted.get(k);
+            String error = !users.contains(transaction.getUserId()) ? "User not found"
+                         : !categories.contains(transaction.getCategoryId()) ? "Category not found" : null;
+            if (error != null) {
+                result.getErrors().add(new BatchRowError(acceptedIndexes.get(k), error));
+                accepted.remove(k);
+                acceptedIndexes.remove(k);
             }
         }
+        result.getErrors().sort(Comparator.comparingInt(BatchRowError::getIndex));
+    }
+    
+    // ID dikirim sebagai satu array JSON, jadi tidak terbentur batas jumlah parameter SQLite
+    private Set<Integer> existingIds(String table, List<Integer> ids) {
+        String json = ids.stream().distinct().map(String::valueOf).collect(Collectors.joining(",", "[", "]"));
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT id FROM " + table + " WHERE id IN (SELECT value FROM json_each(?))", Integer.class, json));
+    }
+    
+    // Validasi dan normalisasi (type uppercase, description di-trim) sebelum masuk batch atau antrian
+    void prepareNewTransaction(Transaction transaction) {
+        validateNewTransaction(transaction);
+        transaction.setType(transaction.getType().toUpperCase().trim());
+        transaction.setDescription(transaction.getDescription().trim());
     }
     
-    // Method alternatif menggunakan JdbcTemplate
+    // Menulis transaksi yang sudah lolos prepareNewTransaction dengan satu JDBC batch
+    // dan mengisi ID hasil insert ke masing-masing objek
     @Transactional
-    private Transaction createTransactionWithJdbcTemplate(Transaction transaction, String type, String description) {
-        String sql = "INSERT INTO transactions (user_id, type, amount, category_id, description, transaction_date) " +
-                    "VALUES (?, ?, ?, ?, ?, ?)";
-        
-        jdbcTemplate.update(sql,
-            transaction.getUserId(),
-            type,
-            transaction.getAmount(),
-            transaction.getCategoryId(),
-            description,
-            transaction.getTransactionDate()
-        );
-        
-        // Dapatkan ID yang baru di-insert
-        Integer newId = jdbcTemplate.queryForObject("SELECT last_insert_rowid()", Integer.class);
+    public List<Transaction> insertPreparedBatch(List<Transaction> prepared) {
+        // Dibulatkan ke detik, sama dengan presisi CURRENT_TIMESTAMP
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC).withNano(0);
+        String timestamp = now.format(SqliteTimestampConverter.FORMAT);
+        List<Object[]> rows = new ArrayList<>(prepared.size());
+        for (Transaction transaction : prepared) {
+            rows.add(new Object[] {
+                transaction.getUserId(),
+                transaction.getType(),
+                transaction.getAmount(),
+                transaction.getCategoryId(),
+                transaction.getDescription(),
+                transaction.getTransactionDate().toEpochDay(),
+                timestamp,
+                timestamp
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT_BATCH_SQL, rows);
         
-        // Set ID dan return transaction yang lengkap
-        transaction.setId(newId);
-        transaction.setType(type);
-        transaction.setDescription(description);
+        // Selama transaksi ini memegang write lock SQLite tidak ada penulis lain,
+        // sehingga ID AUTOINCREMENT untuk batch ini berurutan dan berakhir di last_insert_rowid()
+        Integer lastId = jdbcTemplate.queryForObject("SELECT last_insert_rowid()", Integer.class);
+        int firstId = lastId - rows.size() + 1;
+        for (int k = 0; k < prepared.size(); k++) {
+            prepared.get(k).setId(firstId + k);
+            prepared.get(k).setCreatedAt(now);
+            prepared.get(k).setUpdatedAt(now);
+        }
         
-        return transaction;
+        transactionRollupService.applyBatch(prepared);
+        budgetTracker.recordSpend(prepared);
+        prepared.stream().map(Transaction::getUserId).distinct().forEach(changeVersionService::transactionsChanged);
+        return prepared;
     }
     
     @Transactional
@@ -144,6 +648,14 @@ public class TransactionService {
             throw new RuntimeException("Transaction not found");
         }
         
+        // Keluarkan kontribusi lama dari rollup sebelum field diubah
+        transactionRollupService.apply(existingTransaction.getUserId(), existingTransaction.getCategoryId(),
+                                       existingTransaction.getType(), existingTransaction.getTransactionDate(),
+                                       -existingTransaction.getAmount(), -1);
+        budgetTracker.recordSpend(existingTransaction.getUserId(), existingTransaction.getCategoryId(),
+                                  existingTransaction.getType(), existingTransaction.getTransactionDate(),
+                                  -existingTransaction.getAmount());
+        
         if (transaction.getAmount() != null && transaction.getAmount() > 0) {
             existingTransaction.setAmount(transaction.getAmount());
         }
@@ -156,21 +668,86 @@ public class TransactionService {
         if (transaction.getDescription() != null && !transaction.getDescription().trim().isEmpty()) {
             existingTransaction.setDescription(transaction.getDescription().trim());
         }
-        if (transaction.getTransactionDate() != null && !transaction.getTransactionDate().trim().isEmpty()) {
-            // Validasi format tanggal
-            if (!transaction.getTransactionDate().matches("\\d{4}-\\d{2}-\\d{2}")) {
-                throw new RuntimeException("Transaction date must be in YYYY-MM-DD format");
-            }
+        if (transaction.getTransactionDate() != null) {
             existingTransaction.setTransactionDate(transaction.getTransactionDate());
         }
         
         // Biarkan database handle updated_at secara otomatis
         // Tidak perlu set manual karena ada DEFAULT CURRENT_TIMESTAMP
         
-        return transactionRepository.save(existingTransaction);
+        Transaction saved = transactionRepository.save(existingTransaction);
+        transactionRollupService.apply(saved.getUserId(), saved.getCategoryId(), saved.getType(),
+                                       saved.getTransactionDate(), saved.getAmount(), 1);
+        budgetTracker.recordSpend(saved.getUserId(), saved.getCategoryId(), saved.getType(),
+                                  saved.getTransactionDate(), saved.getAmount());
+        changeVersionService.transactionsChanged(saved.getUserId());
+        return saved;
     }
     
+    @Transactional
     public void deleteTransaction(Integer id) {
-        transactionRepository.deleteById(id);
+        Transaction existingTransaction = transactionRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Transaction not found"));
+        transactionRepository.delete(existingTransaction);
+        transactionRollupService.apply(existingTransaction.getUserId(), existingTransaction.getCategoryId(),
+                                       existingTransaction.getType(), existingTransaction.getTransactionDate(),
+                                       -existingTransaction.getAmount(), -1);
+        budgetTracker.recordSpend(existingTransaction.getUserId(), existingTransaction.getCategoryId(),
+                                  existingTransaction.getType(), existingTransaction.getTransactionDate(),
+                                  -existingTransaction.getAmount());
+        changeVersionService.transactionsChanged(existingTransaction.getUserId());
+    }
+    
+    // Bulk delete berbasis SQL di dalam satu transaksi DB: rollup dan budget disesuaikan dengan query
+    // agregat, lalu satu DELETE (index FTS ikut lewat trigger), bukan load dan hapus per entity.
+    // Minimal userId atau categoryId harus diisi; tanggal boleh null.
+    @Transactional
+    public int deleteTransactions(Integer userId, Integer categoryId, String startDate, String endDate) {
+        if (userId == null && categoryId == null) {
+            throw new RuntimeException("User or category is required");
+        }
+        LocalDate start = parseDate(startDate, "Start date");
+        LocalDate end = parseDate(endDate, "End date");
+        
+        StringBuilder where = new StringBuilder(" WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (userId != null) {
+            where.append(" AND user_id = ?");
+            args.add(userId);
+        }
+        if (categoryId != null) {
+            where.append(" AND category_id = ?");
+            args.add(categoryId);
+        }
+        if (start != null) {
+            where.append(" AND transaction_date >= ?");
+            args.add(start.toEpochDay());
+        }
+        if (end != null) {
+            where.append(" AND transaction_date <= ?");
+            args.add(end.toEpochDay());
+        }
+        
+        // Keduanya membaca baris yang akan dihapus, jadi harus sebelum DELETE
+        transactionRollupService.subtractMatching(userId, categoryId, start, end);
+        budgetTracker.recordBulkDelete(userId, categoryId, start, end);
+        int deleted = jdbcTemplate.update("DELETE FROM transactions" + where, args.toArray());
+        if (deleted > 0) {
+            if (userId != null) {
+                changeVersionService.transactionsChanged(userId);
+            } else {
+                changeVersionService.transactionsChangedForAllUsers();
+            }
+        }
+        log.info("Deleted {} transactions (user {}, category {}, {}..{})", deleted, userId, categoryId, start, end);
+        return deleted;
+    }
+    
+    public int rebuildRollup() {
+        return transactionRollupService.rebuild();
+    }
+    
+    public RollupVerification verifyRollup() {
+        return transactionRollupService.verify();
     }
 }
@@ -0,0 +1,11 @@
+package com.expensetracker.service;
+
+/**
+ * Dilempar saat data ditulis untuk user yang tidak ada; controller menjawab 404.
+ */
+public class UserNotFoundException extends RuntimeException {
+
+    public UserNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -1,25 +1,87 @@
 package com.expensetracker.service;
 
+import com.expensetracker.dto.BatchInsertResult;
+import com.expensetracker.dto.BatchRowError;
+import com.expensetracker.dto.CursorPage;
+import com.expensetracker.dto.UserView;
 import com.expensetracker.entity.User;
 import com.expensetracker.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class UserService {
 
+    // Batas jumlah baris per request import user
+    public static final int MAX_IMPORT_SIZE = 10000;
+
+    public static final int DEFAULT_SEARCH_LIMIT = 20;
+    public static final int MAX_SEARCH_LIMIT = 100;
+
+    // Panjang token trigram; query lebih pendek dicari sebagai prefix
+    private static final int TRIGRAM_LENGTH = 3;
+    private static final int MAX_QUERY_LENGTH = 100;
+
+    // Jumlah email per query pengecekan duplikat saat import (batas parameter SQLite)
+    private static final int EMAIL_LOOKUP_CHUNK = 500;
+
+    private static final String IMPORT_SQL =
+        "INSERT INTO users (name, email, password_hash, role, status) VALUES (?, ?, ?, ?, ?)";
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private UserWriteExecutor userWriteExecutor;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private ChangeVersionService changeVersionService;
+
+    @Autowired
+    private BudgetTracker budgetTracker;
+
+    @Autowired
+    private SettingService settingService;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    private TransactionTemplate transactionTemplate;
 
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public List<UserView> getAllUsers() {
+        return userRepository.findAllViews();
     }
 
     public Optional<User> getUserById(Integer id) {
@@ -30,28 +92,51 @@ public class UserService {
         return userRepository.findByEmail(email);
     }
 
-    public User createUser(User user) {
+    // Hash password berjalan di executor PasswordHashingService, bukan di thread request;
+    // error validasi dikembalikan sebagai future yang gagal
+    public CompletableFuture<User> createUser(User user) {
+        if (user.getPasswordHash() == null || user.getPasswordHash().isEmpty()) {
+            return CompletableFuture.failedFuture(new RuntimeException("Password wajib diisi"));
+        }
         if (userRepository.existsByEmail(user.getEmail())) {
-            throw new RuntimeException("Email sudah terdaftar");
+            return CompletableFuture.failedFuture(new RuntimeException("Email sudah terdaftar"));
         }
         
-        // Encode password
-        user.setPasswordHash(passwordEncoder.encode(user.getPasswordHash()));
-        
-        // Set default values
-        if (user.getRole() == null) {
-            user.setRole("USER");
-        }
-        if (user.getStatus() == null) {
-            user.setStatus("ACTIVE");
+        // Hash di executor hashing, simpan di UserWriteExecutor
+        return passwordHashingService.hash(user.getPasswordHash()).thenApplyAsync(passwordHash -> {
+            user.setPasswordHash(passwordHash);
+            
+            // Set default values
+            if (user.getRole() == null) {
+                user.setRole("USER");
+            }
+            if (user.getStatus() == null) {
+                user.setStatus("ACTIVE");
+            }
+            
+            User saved = userRepository.save(user);
+            changeVersionService.usersChanged();
+            return saved;
+        }, userWriteExecutor);
+    }
+
+    public CompletableFuture<User> updateUser(Integer id, User userDetails) {
+        if (!userRepository.existsById(id)) {
+            return CompletableFuture.failedFuture(new RuntimeException("User tidak ditemukan"));
         }
-        
-        return userRepository.save(user);
+        String password = userDetails.getPasswordHash();
+        CompletableFuture<String> passwordHash = password == null || password.isEmpty()
+                ? CompletableFuture.completedFuture(null)
+                : passwordHashingService.hash(password);
+        return passwordHash.thenApplyAsync(hash -> applyUpdate(id, userDetails, hash), userWriteExecutor);
     }
 
-    public User updateUser(Integer id, User userDetails) {
+    private User applyUpdate(Integer id, User userDetails, String passwordHash) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User tidak ditemukan"));
+        // JWT membawa role dan hanya berlaku untuk user aktif; token lama dicabut jika salah satunya berubah
+        boolean revokeTokens = !Objects.equals(user.getRole(), userDetails.getRole())
+                || !Objects.equals(user.getStatus(), userDetails.getStatus());
         
         user.setName(userDetails.getName());
         user.setEmail(userDetails.getEmail());
@@ -59,33 +144,207 @@ public class UserService {
         user.setStatus(userDetails.getStatus());
         
         // Update password if provided
-        if (userDetails.getPasswordHash() != null && !userDetails.getPasswordHash().isEmpty()) {
-            user.setPasswordHash(passwordEncoder.encode(userDetails.getPasswordHash()));
+        if (passwordHash != null) {
+            user.setPasswordHash(passwordHash);
+            revokeTokens = true;
         }
         
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        changeVersionService.usersChanged();
+        if (revokeTokens) {
+            tokenRevocationService.revokeUser(id);
+        }
+        return saved;
     }
 
+    // Import massal: validasi per baris, password di-hash paralel di semua core,
+    // lalu semua baris yang lolos ditulis dalam satu transaksi DB
+    public CompletableFuture<BatchInsertResult> importUsers(List<User> users) {
+        if (users == null || users.isEmpty()) {
+            return CompletableFuture.failedFuture(new RuntimeException("Minimal satu user"));
+        }
+        if (users.size() > MAX_IMPORT_SIZE) {
+            return CompletableFuture.failedFuture(
+                    new RuntimeException("Jumlah user per import maksimal " + MAX_IMPORT_SIZE));
+        }
+        
+        BatchInsertResult result = new BatchInsertResult();
+        Set<String> existing = findExistingEmails(users);
+        Set<String> seen = new HashSet<>();
+        List<User> accepted = new ArrayList<>();
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            result.getIds().add(null);
+            String error = validateImport(user, existing, seen);
+            if (error != null) {
+                result.getErrors().add(new BatchRowError(i, error));
+                continue;
+            }
+            accepted.add(user);
+            acceptedIndexes.add(i);
+        }
+        if (accepted.isEmpty()) {
+            return CompletableFuture.completedFuture(result);
+        }
+        
+        List<String> passwords = accepted.stream().map(User::getPasswordHash).toList();
+        return passwordHashingService.hashAll(passwords).thenApplyAsync(hashes -> {
+            int firstId = insertImported(accepted, hashes);
+            for (int k = 0; k < accepted.size(); k++) {
+                result.getIds().set(acceptedIndexes.get(k), firstId + k);
+            }
+            result.setInsertedCount(accepted.size());
+            changeVersionService.usersChanged();
+            return result;
+        }, userWriteExecutor);
+    }
+
+    private String validateImport(User user, Set<String> existing, Set<String> seen) {
+        if (user == null) {
+            return "User wajib diisi";
+        }
+        if (user.getName() == null || user.getName().trim().isEmpty()) {
+            return "Nama wajib diisi";
+        }
+        if (user.getEmail() == null || user.getEmail().trim().isEmpty()) {
+            return "Email wajib diisi";
+        }
+        if (user.getPasswordHash() == null || user.getPasswordHash().isEmpty()) {
+            return "Password wajib diisi";
+        }
+        String email = user.getEmail().trim();
+        if (existing.contains(email) || !seen.add(email)) {
+            return "Email sudah terdaftar";
+        }
+        user.setName(user.getName().trim());
+        user.setEmail(email);
+        if (user.getRole() == null) {
+            user.setRole("USER");
+        }
+        if (user.getStatus() == null) {
+            user.setStatus("ACTIVE");
+        }
+        return null;
+    }
+
+    private Set<String> findExistingEmails(List<User> users) {
+        List<String> emails = users.stream()
+                .filter(user -> user != null && user.getEmail() != null)
+                .map(user -> user.getEmail().trim())
+                .distinct()
+                .toList();
+        Set<String> existing = new HashSet<>();
+        for (int from = 0; from < emails.size(); from += EMAIL_LOOKUP_CHUNK) {
+            existing.addAll(userRepository.findExistingEmails(
+                    emails.subList(from, Math.min(from + EMAIL_LOOKUP_CHUNK, emails.size()))));
+        }
+        return existing;
+    }
+
+    // Satu JDBC batch dalam satu transaksi; mengembalikan id baris pertama
+    private int insertImported(List<User> users, List<String> passwordHashes) {
+        List<Object[]> rows = new ArrayList<>(users.size());
+        for (int k = 0; k < users.size(); k++) {
+            User user = users.get(k);
+            rows.add(new Object[] { user.getName(), user.getEmail(), passwordHashes.get(k), user.getRole(), user.getStatus() });
+        }
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.batchUpdate(IMPORT_SQL, rows);
+            // Write lock SQLite dipegang transaksi ini, jadi ID AUTOINCREMENT batch ini berurutan
+            Integer lastId = jdbcTemplate.queryForObject("SELECT last_insert_rowid()", Integer.class);
+            return lastId - rows.size() + 1;
+        });
+    }
+
+    // Satu DELETE tanpa load entity; kategori, transaksi, budget, setting dan rollup user ikut
+    // terhapus lewat ON DELETE CASCADE di statement yang sama, index FTS lewat trigger.
+    // Kategori user juga bisa dipakai transaksi/budget user lain, jadi id-nya diambil di transaksi
+    // DB yang sama sebelum DELETE untuk invalidasi ETag dan budget user lain.
     public void deleteUser(Integer id) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("User tidak ditemukan"));
-        userRepository.delete(user);
+        List<Integer> categoryIds = transactionTemplate.execute(status -> {
+            List<Integer> ids = jdbcTemplate.queryForList("SELECT id FROM categories WHERE user_id = ?", Integer.class, id);
+            if (jdbcTemplate.update("DELETE FROM users WHERE id = ?", id) == 0) {
+                throw new RuntimeException("User tidak ditemukan");
+            }
+            return ids;
+        });
+        categoryService.evictUserCategories(id);
+        if (categoryIds.isEmpty()) {
+            changeVersionService.transactionsChanged(id);
+        } else {
+            changeVersionService.transactionsChangedForAllUsers();
+        }
+        changeVersionService.usersChanged();
+        budgetTracker.removeUser(id);
+        budgetTracker.removeCategories(categoryIds);
+        settingService.evictUser(id);
+        tokenRevocationService.revokeUser(id);
     }
 
-    public List<User> getUsersByRole(String role) {
-        return userRepository.findByRole(role);
+    public List<UserView> getUsersByRole(String role) {
+        return userRepository.findViewsByRole(role);
     }
 
-    public List<User> getUsersByStatus(String status) {
-        return userRepository.findByStatus(status);
+    public List<UserView> getUsersByStatus(String status) {
+        return userRepository.findViewsByStatus(status);
     }
 
     public long countUsersByRole(String role) {
         return userRepository.countByRole(role);
     }
 
-    public List<User> searchUsers(String name, String email) {
-        return userRepository.searchUsers(name, email);
+    // Pencarian admin atas name/email (case-insensitive), keyset pagination urut id.
+    // Query >= 3 karakter = substring lewat index trigram, 1-2 karakter = prefix lewat index NOCASE.
+    @Transactional(readOnly = true)
+    public CursorPage<UserView> searchUsers(String query, String cursor, Integer limit) {
+        int size = limit == null ? DEFAULT_SEARCH_LIMIT : limit;
+        if (size <= 0) {
+            throw new RuntimeException("Limit harus positif");
+        }
+        size = Math.min(size, MAX_SEARCH_LIMIT);
+        String term = query == null ? "" : query.strip();
+        if (term.isEmpty()) {
+            throw new RuntimeException("Query pencarian kosong");
+        }
+        if (term.length() > MAX_QUERY_LENGTH) {
+            throw new RuntimeException("Query pencarian terlalu panjang");
+        }
+        int afterId = cursor == null || cursor.isEmpty() ? 0 : decodeCursor(cursor);
+        
+        // Ambil satu baris ekstra untuk tahu apakah masih ada halaman berikutnya
+        List<Integer> ids = term.codePointCount(0, term.length()) >= TRIGRAM_LENGTH
+                ? userRepository.searchIdsByTrigram(toPhrase(term), afterId, size + 1)
+                : userRepository.searchIdsByPrefix(toLikePrefix(term), afterId, size + 1);
+        String nextCursor = null;
+        if (ids.size() > size) {
+            ids = ids.subList(0, size);
+            nextCursor = encodeCursor(ids.get(size - 1));
+        }
+        List<UserView> items = ids.isEmpty() ? List.of() : userRepository.findViewsByIdIn(ids);
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    // Seluruh query menjadi satu phrase FTS5, jadi operator/sintaks FTS5 dari input tidak pernah aktif
+    private static String toPhrase(String term) {
+        return '"' + term.replace("\"", "\"\"") + '"';
+    }
+
+    private static String toLikePrefix(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    // Cursor = base64url(id) dari baris terakhir halaman sebelumnya
+    private static String encodeCursor(Integer id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(String.valueOf(id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int decodeCursor(String cursor) {
+        try {
+            return Integer.parseInt(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Cursor tidak valid");
+        }
     }
 
     public boolean existsByEmail(String email) {
@@ -0,0 +1,55 @@
+package com.expensetracker.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor untuk penulisan database setelah hash BCrypt selesai (create/update/import user, rehash
+ * saat login). Thread password-hasher hanya untuk CPU: kalau ikut menunggu koneksi tulis SQLite
+ * yang cuma satu, hashing berhenti dan antriannya penuh (503) padahal CPU menganggur.
+ */
+@Component
+public class UserWriteExecutor implements Executor {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Tulisan tetap berurutan di satu koneksi; thread kedua menyiapkan entity selagi yang lain menulis
+    @Value("${users.write-threads:2}")
+    private int threads;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "user-writer-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "userWrites");
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        executor.execute(command);
+    }
+}
@@ -0,0 +1,11 @@
+package com.expensetracker.service;
+
+/**
+ * Dilempar saat antrian group commit penuh; controller menjawab 503 agar client mencoba lagi.
+ */
+public class WriteQueueFullException extends RuntimeException {
+
+    public WriteQueueFullException(String message) {
+        super(message);
+    }
+}
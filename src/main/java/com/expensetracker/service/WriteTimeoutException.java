@@ -0,0 +1,20 @@
+package com.expensetracker.service;
+
+/**
+ * Dilempar saat pemanggil group commit kehabisan waktu menunggu. Jika tulisannya sudah dibatalkan
+ * sebelum diambil thread penulis, transaksi pasti tidak tersimpan (503, aman diulang); jika batch-nya
+ * sedang ditulis, hasilnya tidak diketahui (504, client harus memeriksa dulu sebelum mengulang).
+ */
+public class WriteTimeoutException extends RuntimeException {
+
+    private final boolean outcomeUnknown;
+
+    public WriteTimeoutException(String message, boolean outcomeUnknown) {
+        super(message);
+        this.outcomeUnknown = outcomeUnknown;
+    }
+
+    public boolean isOutcomeUnknown() {
+        return outcomeUnknown;
+    }
+}
@@ -22,13 +22,13 @@ INSERT INTO categories (name, type, color, icon, is_default, user_id, created_at
 ('Tagihan', 'EXPENSE', '#795548', '📋', 1, 1, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
 ('Lainnya', 'EXPENSE', '#607D8B', '📦', 1, 1, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
 
--- Insert sample transactions
+-- Insert sample transactions (amount dalam 1/100 Rupiah, tanggal sebagai epoch day)
 INSERT INTO transactions (user_id, type, amount, category_id, description, transaction_date, created_at, updated_at) VALUES 
-(1, 'INCOME', 5000000.00, 1, 'Gaji bulanan Januari 2024', '2024-01-15', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-(1, 'EXPENSE', 150000.00, 4, 'Makan siang di restoran', '2024-01-16', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-(1, 'EXPENSE', 50000.00, 5, 'Bensin motor', '2024-01-16', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-(1, 'INCOME', 500000.00, 2, 'Project freelance website', '2024-01-17', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-(1, 'EXPENSE', 200000.00, 6, 'Nonton film di bioskop', '2024-01-18', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
+(1, 'INCOME', 500000000, 1, 'Gaji bulanan Januari 2024', CAST(julianday('2024-01-15') - 2440587.5 AS INTEGER), CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(1, 'EXPENSE', 15000000, 4, 'Makan siang di restoran', CAST(julianday('2024-01-16') - 2440587.5 AS INTEGER), CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(1, 'EXPENSE', 5000000, 5, 'Bensin motor', CAST(julianday('2024-01-16') - 2440587.5 AS INTEGER), CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(1, 'INCOME', 50000000, 2, 'Project freelance website', CAST(julianday('2024-01-17') - 2440587.5 AS INTEGER), CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(1, 'EXPENSE', 20000000, 6, 'Nonton film di bioskop', CAST(julianday('2024-01-18') - 2440587.5 AS INTEGER), CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
 
 -- Insert default settings
 INSERT INTO settings (user_id, setting_key, setting_value, created_at, updated_at) VALUES 
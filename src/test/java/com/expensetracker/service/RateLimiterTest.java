@@ -0,0 +1,81 @@
+package com.expensetracker.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * GCRA per bucket: burst, penolakan dengan waktu tunggu, dan refund token untuk request
+ * yang ditolak oleh bucket lain.
+ */
+class RateLimiterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimiter = new RateLimiter();
+        ReflectionTestUtils.setField(rateLimiter, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(rateLimiter, "enabled", true);
+        ReflectionTestUtils.setField(rateLimiter, "maxBuckets", 1000L);
+        ReflectionTestUtils.setField(rateLimiter, "idleEvictionSeconds", 600L);
+        rateLimiter.init();
+    }
+
+    @Test
+    void acceptsBurstThenRejectsWithWait() {
+        // 1 per detik: setelah burst habis, token berikutnya baru ada dalam satu interval
+        for (int i = 0; i < 3; i++) {
+            assertThat(rateLimiter.acquire("test", "user", 1, 1, 3)).isZero();
+        }
+        long wait = rateLimiter.acquire("test", "user", 1, 1, 3);
+        assertThat(wait).isPositive().isLessThanOrEqualTo(TimeUnit.SECONDS.toNanos(1));
+        assertThat(meterRegistry.counter("ratelimit.rejected", "endpoint", "test", "scope", "user").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void bucketsAreIndependentPerKeyScopeAndEndpoint() {
+        assertThat(rateLimiter.acquire("test", "user", 1, 1, 1)).isZero();
+        assertThat(rateLimiter.acquire("test", "user", 1, 1, 1)).isPositive();
+        assertThat(rateLimiter.acquire("test", "user", 2, 1, 1)).isZero();
+        assertThat(rateLimiter.acquire("test", "ip", 1, 1, 1)).isZero();
+        assertThat(rateLimiter.acquire("other", "user", 1, 1, 1)).isZero();
+    }
+
+    @Test
+    void refundReturnsTheAcquiredToken() {
+        assertThat(rateLimiter.acquire("test", "user", 1, 1, 2)).isZero();
+        assertThat(rateLimiter.acquire("test", "user", 1, 1, 2)).isZero();
+        assertThat(rateLimiter.acquire("test", "user", 1, 1, 2)).isPositive();
+
+        rateLimiter.refund("test", "user", 1, 1);
+        assertThat(rateLimiter.acquire("test", "user", 1, 1, 2)).isZero();
+        assertThat(rateLimiter.acquire("test", "user", 1, 1, 2)).isPositive();
+    }
+
+    @Test
+    void refundedRequestsDoNotDrainTheBucket() {
+        // Request yang ditolak bucket IP berulang kali: setiap token user dikembalikan
+        for (int i = 0; i < 100; i++) {
+            assertThat(rateLimiter.acquire("test", "user", 1, 1, 2)).isZero();
+            rateLimiter.refund("test", "user", 1, 1);
+        }
+        assertThat(rateLimiter.acquire("test", "user", 1, 1, 2)).isZero();
+        assertThat(rateLimiter.acquire("test", "user", 1, 1, 2)).isZero();
+    }
+
+    @Test
+    void refundOfUnknownBucketIsIgnored() {
+        rateLimiter.refund("test", "user", 42, 1);
+        assertThat(rateLimiter.acquire("test", "user", 42, 1, 1)).isZero();
+        assertThat(rateLimiter.acquire("test", "user", 42, 1, 1)).isPositive();
+    }
+}
@@ -0,0 +1,212 @@
+package com.expensetracker.service;
+
+import com.expensetracker.config.SchemaUpgrade;
+import com.expensetracker.entity.User;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.sqlite.SQLiteDataSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pencabutan token per user: urutan iat_ms terhadap revoked_before, token lama tanpa iat_ms,
+ * dan baris revoked_user_tokens lama (epoch detik) yang dimigrasi oleh SchemaUpgrade.
+ */
+class TokenRevocationServiceTest {
+
+    private static final String SECRET = "expenseTrackerSecretKey2024VeryLongAndSecureKeyForJWTTokenGeneration";
+    private static final long EXPIRATION_MS = 3_600_000;
+
+    @TempDir
+    Path dir;
+
+    private JdbcTemplate jdbcTemplate;
+    private final List<TokenRevocationService> services = new ArrayList<>();
+
+    @BeforeEach
+    void createDatabase() throws IOException {
+        SQLiteDataSource dataSource = new SQLiteDataSource();
+        dataSource.setUrl("jdbc:sqlite:" + dir.resolve("test.db"));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        for (String sql : statements(Files.readString(Path.of("database-schema.sql")))) {
+            jdbcTemplate.execute(sql);
+        }
+        upgradeSchema();
+    }
+
+    @AfterEach
+    void stopServices() {
+        services.forEach(TokenRevocationService::stop);
+    }
+
+    @Test
+    void reloginInSameSecondAsRevocationIsAccepted() {
+        TokenRevocationService revocations = startRevocations();
+        JwtService jwtService = jwtService(revocations);
+
+        String old = jwtService.issue(user(1));
+        revocations.revokeUser(1);
+        String fresh = jwtService.issue(user(1));
+
+        assertThat(jwtService.authenticate(old)).isNull();
+        assertThat(jwtService.authenticate(fresh)).isNotNull();
+    }
+
+    @Test
+    void revocationInSameMillisecondSeparatesOldAndNewTokens() {
+        TokenRevocationService revocations = startRevocations();
+        JwtService jwtService = jwtService(revocations);
+
+        // Ratusan putaran dalam beberapa milidetik: issue, revoke dan issue sering jatuh di milidetik yang sama
+        for (int i = 0; i < 500; i++) {
+            String old = jwtService.issue(user(2));
+            revocations.revokeUser(2);
+            String fresh = jwtService.issue(user(2));
+            assertThat(jwtService.authenticate(old)).as("token before revocation %d", i).isNull();
+            assertThat(jwtService.authenticate(fresh)).as("token after revocation %d", i).isNotNull();
+        }
+    }
+
+    @Test
+    void nextTimestampIsStrictlyIncreasing() {
+        TokenRevocationService revocations = startRevocations();
+        long previous = revocations.nextTimestamp();
+        for (int i = 0; i < 10_000; i++) {
+            long next = revocations.nextTimestamp();
+            assertThat(next).isGreaterThan(previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    void legacyTokenFromRevocationSecondIsRejected() {
+        TokenRevocationService revocations = startRevocations();
+        JwtService jwtService = jwtService(revocations);
+        long second = System.currentTimeMillis() / 1000;
+
+        String before = legacyToken(3, second);
+        revocations.revokeUser(3);
+
+        assertThat(jwtService.authenticate(before)).isNull();
+        assertThat(jwtService.authenticate(legacyToken(3, second + 2))).isNotNull();
+    }
+
+    @Test
+    void migratedSecondBasedRowsStillRejectTokensFromThatSecond() {
+        long second = System.currentTimeMillis() / 1000 - 10;
+        jdbcTemplate.update("INSERT INTO revoked_user_tokens (user_id, revoked_before) VALUES (?, ?)", 4, second);
+        upgradeSchema();
+        upgradeSchema();
+        assertThat(jdbcTemplate.queryForObject("SELECT revoked_before FROM revoked_user_tokens WHERE user_id = 4",
+                                               Long.class)).isEqualTo(second * 1000);
+
+        TokenRevocationService revocations = startRevocations();
+        JwtService jwtService = jwtService(revocations);
+
+        assertThat(jwtService.authenticate(legacyToken(4, second - 1))).isNull();
+        assertThat(jwtService.authenticate(legacyToken(4, second))).isNull();
+        assertThat(jwtService.authenticate(legacyToken(4, second + 1))).isNotNull();
+        assertThat(jwtService.authenticate(jwtService.issue(user(4)))).isNotNull();
+    }
+
+    @Test
+    void revocationsSurviveRestart() {
+        TokenRevocationService first = startRevocations();
+        JwtService jwtService = jwtService(first);
+        String old = jwtService.issue(user(5));
+        first.revokeUser(5);
+
+        TokenRevocationService restarted = startRevocations();
+        JwtService restartedJwt = jwtService(restarted);
+        assertThat(restartedJwt.authenticate(old)).isNull();
+        assertThat(restartedJwt.authenticate(restartedJwt.issue(user(5)))).isNotNull();
+    }
+
+    private void upgradeSchema() {
+        SchemaUpgrade schemaUpgrade = new SchemaUpgrade();
+        ReflectionTestUtils.setField(schemaUpgrade, "jdbcTemplate", jdbcTemplate);
+        schemaUpgrade.afterPropertiesSet();
+    }
+
+    private TokenRevocationService startRevocations() {
+        TokenRevocationService revocations = new TokenRevocationService();
+        ReflectionTestUtils.setField(revocations, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(revocations, "expirationMs", EXPIRATION_MS);
+        revocations.start();
+        services.add(revocations);
+        return revocations;
+    }
+
+    private JwtService jwtService(TokenRevocationService revocations) {
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "tokenRevocationService", revocations);
+        ReflectionTestUtils.setField(jwtService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwtService, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtService, "expirationMs", EXPIRATION_MS);
+        ReflectionTestUtils.setField(jwtService, "cacheSize", 100L);
+        jwtService.init();
+        return jwtService;
+    }
+
+    private static User user(int id) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail("user" + id + "@example.com");
+        user.setRole("USER");
+        return user;
+    }
+
+    // Token seperti yang diterbitkan sebelum ada claim iat_ms: iat hanya per detik
+    private static String legacyToken(int userId, long issuedAtSecond) {
+        return Jwts.builder()
+                .id(UUID.randomUUID().toString())
+                .subject(String.valueOf(userId))
+                .claim("email", "user" + userId + "@example.com")
+                .claim("role", "USER")
+                .issuedAt(new Date(issuedAtSecond * 1000))
+                .expiration(new Date(issuedAtSecond * 1000 + EXPIRATION_MS))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+
+    // Trigger berisi ';' di dalam BEGIN ... END, jadi tidak bisa dipecah per ';' saja
+    private static List<String> statements(String script) {
+        StringBuilder withoutComments = new StringBuilder();
+        for (String line : script.split("\n")) {
+            if (!line.trim().startsWith("--")) {
+                withoutComments.append(line).append('\n');
+            }
+        }
+        List<String> statements = new ArrayList<>();
+        StringBuilder pending = new StringBuilder();
+        for (String part : withoutComments.toString().split(";")) {
+            pending.append(part);
+            String sql = pending.toString().trim();
+            if (sql.toUpperCase().startsWith("CREATE TRIGGER") && !sql.toUpperCase().endsWith("END")) {
+                pending.append(';');
+                continue;
+            }
+            if (!sql.isEmpty()) {
+                statements.add(sql);
+            }
+            pending.setLength(0);
+        }
+        return statements;
+    }
+}